@@ -1,6 +1,7 @@
 package com.craftinginterpreters.lox;
 
 import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.LoxNumber;
 import com.craftinginterpreters.lox.model.Token;
 import com.craftinginterpreters.lox.model.TokenType;
 
@@ -24,7 +25,7 @@ public class AstPrinter implements Expr.Visitor<String> {
         if (expr.value == null) {
             return "nil";
         }
-        return expr.value.toString();
+        return LoxNumber.toDebugString(expr.value);
     }
 
     @Override
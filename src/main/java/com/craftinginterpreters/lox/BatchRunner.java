@@ -0,0 +1,232 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.Scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates many script files in one JVM. Files are read with asynchronous
+ * NIO and evaluated concurrently on a shared pool; each file gets its own
+ * Interpreter, output buffer and ErrorReporter, so one file's errors never
+ * leak into another's exit status.
+ */
+class BatchRunner {
+    // Caps the number of files open at once; reading more ahead only costs memory.
+    private static final int MAX_OPEN_FILES = 64;
+    private static final String EXTENSION = ".lox";
+
+    static class Result {
+        final Path path;
+        final int exitStatus;
+        final String output;
+        final String errors;
+
+        Result(Path path, int exitStatus, String output, String errors) {
+            this.path = path;
+            this.exitStatus = exitStatus;
+            this.output = output;
+            this.errors = errors;
+        }
+    }
+
+    private final ExecutorService workers;
+    private final Semaphore openFiles = new Semaphore(MAX_OPEN_FILES);
+
+    BatchRunner(ExecutorService workers) {
+        this.workers = workers;
+    }
+
+    // A directory means every *.lox file below it, a plain file means itself, and anything
+    // else is a glob such as "scripts/**/*.lox".
+    static List<Path> collect(String target) throws IOException {
+        return collect(Paths.get(""), target);
+    }
+
+    // Relative targets are resolved against workingDirectory, and so are the returned paths.
+    // Throws NoSuchFileException for a missing target or a glob whose base directory is missing.
+    static List<Path> collect(Path workingDirectory, String target) throws IOException {
+        Path anchor = workingDirectory.toString().isEmpty() ? Paths.get(".") : workingDirectory;
+        if (!containsGlob(target)) {
+            Path path = workingDirectory.resolve(target);
+            if (Files.isDirectory(path)) {
+                return walk(path, found -> found, found -> found.toString().endsWith(EXTENSION));
+            }
+            if (Files.isRegularFile(path)) {
+                return List.of(path);
+            }
+            throw new NoSuchFileException(target);
+        }
+
+        int firstGlob = firstGlobIndex(target);
+        int lastSeparator = target.lastIndexOf('/', firstGlob);
+        String base = lastSeparator < 0 ? "" : target.substring(0, lastSeparator + 1);
+        Path root = anchor.resolve(base);
+        if (!Files.isDirectory(root)) {
+            throw new NoSuchFileException(workingDirectory.resolve(base).toString());
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + target);
+        if (Paths.get(target).isAbsolute()) {
+            return walk(root, path -> path, matcher);
+        }
+        // Match the path as the user wrote it, relative to the working directory.
+        return walk(root, anchor::relativize, matcher).stream()
+                .map(workingDirectory::resolve)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Path> walk(Path root, Function<Path, Path> asWritten, PathMatcher filter)
+            throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .map(asWritten)
+                    .filter(filter::matches)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean containsGlob(String target) {
+        return firstGlobIndex(target) < target.length();
+    }
+
+    private static int firstGlobIndex(String target) {
+        for (int i = 0; i < target.length(); i++) {
+            if ("*?[{".indexOf(target.charAt(i)) >= 0) return i;
+        }
+        return target.length();
+    }
+
+    // Results come back in the order of the given paths.
+    List<Result> run(List<Path> paths) throws InterruptedException {
+        List<CompletableFuture<Result>> pending = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            openFiles.acquire();
+            pending.add(read(path).handleAsync((bytes, error) ->
+                    error == null ? evaluate(path, bytes) : unreadable(path, error), workers));
+        }
+
+        List<Result> results = new ArrayList<>(paths.size());
+        for (CompletableFuture<Result> future : pending) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException error) {
+                throw new IllegalStateException("Evaluating a file failed.", error.getCause());
+            }
+        }
+        return results;
+    }
+
+    // Expects an openFiles permit to be held; releases it once the file is read or has failed.
+    private CompletableFuture<byte[]> read(Path path) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        AsynchronousFileChannel channel;
+        ByteBuffer buffer;
+        try {
+            channel = AsynchronousFileChannel.open(path, Set.of(StandardOpenOption.READ), workers);
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                channel.close();
+                throw new IOException("File is too large.");
+            }
+            buffer = ByteBuffer.allocate((int) size);
+        } catch (IOException | RuntimeException error) {
+            openFiles.release();
+            result.completeExceptionally(error);
+            return result;
+        }
+
+        channel.read(buffer, 0, buffer, new CompletionHandler<Integer, ByteBuffer>() {
+            @Override
+            public void completed(Integer count, ByteBuffer target) {
+                if (count >= 0 && target.hasRemaining()) {
+                    channel.read(target, target.position(), target, this);
+                    return;
+                }
+                finish();
+                result.complete(Arrays.copyOf(target.array(), target.position()));
+            }
+
+            @Override
+            public void failed(Throwable error, ByteBuffer target) {
+                finish();
+                result.completeExceptionally(error);
+            }
+
+            private void finish() {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Nothing was written, so a failed close loses nothing.
+                }
+                openFiles.release();
+            }
+        });
+        return result;
+    }
+
+    private Result evaluate(Path path, byte[] bytes) {
+        ByteArrayOutputStream errorBytes = new ByteArrayOutputStream();
+        ErrorReporter errors = new ErrorReporter(new PrintStream(errorBytes, true, Charset.defaultCharset()));
+        StringWriter output = new StringWriter();
+
+        Lox.useReporter(errors);
+        try {
+            Expr expression = new Parser(new Scanner(new String(bytes, Charset.defaultCharset()))
+                    .scanTokens()).parse();
+            if (!errors.hadError) {
+                TypeInference.annotate(expression);
+                new Interpreter(EvaluationLimits.UNLIMITED, output, false).interpret(expression);
+            }
+        } catch (RuntimeException | StackOverflowError error) {
+            // A crash that would end a single-file run only fails this file.
+            errors.err.println("Internal error: " + error);
+            errors.hadRuntimeError = true;
+        } finally {
+            Lox.clearReporter();
+        }
+
+        int exitStatus = errors.hadError ? 65 : errors.hadRuntimeError ? 70 : 0;
+        return new Result(path, exitStatus, output.toString(), errorBytes.toString(Charset.defaultCharset()));
+    }
+
+    private static Result unreadable(Path path, Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        return new Result(path, 66, "", "Cannot read file: " + cause.getMessage() + System.lineSeparator());
+    }
+
+    static void writeSummary(List<Result> results, PrintStream out) {
+        for (Result result : results) {
+            out.println("=== " + result.path + " (exit " + result.exitStatus + ")");
+            out.print(result.output);
+            out.print(result.errors);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.craftinginterpreters.lox;
+
+import java.io.PrintStream;
+
+/** Where one run's error messages go, and whether it has seen any. */
+class ErrorReporter {
+    final PrintStream err;
+    boolean hadError = false;
+    boolean hadRuntimeError = false;
+
+    ErrorReporter(PrintStream err) {
+        this.err = err;
+    }
+}
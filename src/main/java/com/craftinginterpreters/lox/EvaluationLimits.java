@@ -0,0 +1,36 @@
+package com.craftinginterpreters.lox;
+
+import java.time.Duration;
+
+/**
+ * Per-evaluation budgets enforced by the {@link Interpreter}. Steps and
+ * string lengths are checked at every operator node; the deadline is only
+ * compared against the clock every 1024 steps, so it may be overrun by that
+ * much work. Leaving all of them on is cheap.
+ */
+public class EvaluationLimits {
+    public static final EvaluationLimits UNLIMITED =
+            new EvaluationLimits(Long.MAX_VALUE, Integer.MAX_VALUE, null);
+
+    final long maxSteps;
+    final int maxStringLength;
+    final long timeoutNanos;
+
+    /**
+     * @param maxSteps        maximum number of unary/binary operator evaluations
+     * @param maxStringLength maximum length of any string produced by concatenation
+     * @param timeout         wall-clock budget per evaluation, or null for none
+     */
+    public EvaluationLimits(long maxSteps, int maxStringLength, Duration timeout) {
+        if (maxSteps < 0 || maxStringLength < 0) {
+            throw new IllegalArgumentException("Limits must not be negative.");
+        }
+        this.maxSteps = maxSteps;
+        this.maxStringLength = maxStringLength;
+        this.timeoutNanos = timeout == null ? Long.MAX_VALUE : timeout.toNanos();
+    }
+
+    boolean hasDeadline() {
+        return timeoutNanos != Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,185 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.Token;
+import com.craftinginterpreters.lox.model.TokenType;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary form of an {@link Expr} tree, written in pre-order.
+ * Bump {@link #FORMAT_VERSION} whenever the layout, the node set or
+ * {@link TokenType} changes so stale cache entries are discarded.
+ */
+class ExprCodec implements Expr.Visitor<Void> {
+    static final int FORMAT_VERSION = 2;
+
+    // Node tags.
+    private static final byte BINARY = 0;
+    private static final byte GROUPING = 1;
+    private static final byte LITERAL = 2;
+    private static final byte UNARY = 3;
+
+    // Value tags.
+    private static final byte NIL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte NUMBER = 3;
+    private static final byte STRING = 4;
+    private static final byte INTEGER = 5;
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    private final DataOutputStream out;
+
+    private ExprCodec(DataOutputStream out) {
+        this.out = out;
+    }
+
+    static void write(Expr expr, DataOutputStream out) throws IOException {
+        try {
+            expr.accept(new ExprCodec(out));
+        } catch (UncheckedIOException error) {
+            throw error.getCause();
+        }
+    }
+
+    static Expr read(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case BINARY: {
+                Expr left = read(in);
+                Token operator = readToken(in);
+                Expr right = read(in);
+                return new Expr.Binary(left, operator, right);
+            }
+            case GROUPING:
+                return new Expr.Grouping(read(in));
+            case LITERAL:
+                return new Expr.Literal(readValue(in));
+            case UNARY: {
+                Token operator = readToken(in);
+                return new Expr.Unary(operator, read(in));
+            }
+        }
+        throw new IllegalStateException("Unknown node tag " + tag + ".");
+    }
+
+    @Override
+    public Void visitBinaryExpr(Expr.Binary expr) {
+        writeByte(BINARY);
+        expr.left.accept(this);
+        writeToken(expr.operator);
+        expr.right.accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitGroupingExpr(Expr.Grouping expr) {
+        writeByte(GROUPING);
+        expr.expression.accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitLiteralExpr(Expr.Literal expr) {
+        writeByte(LITERAL);
+        writeValue(expr.value);
+        return null;
+    }
+
+    @Override
+    public Void visitUnaryExpr(Expr.Unary expr) {
+        writeByte(UNARY);
+        writeToken(expr.operator);
+        expr.right.accept(this);
+        return null;
+    }
+
+    private void writeToken(Token token) {
+        writeByte((byte) token.tokenType.ordinal());
+        writeString(token.lexeme);
+        writeValue(token.literal);
+        try {
+            out.writeInt(token.lineNumber);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static Token readToken(ByteBuffer in) {
+        TokenType type = TOKEN_TYPES[in.get()];
+        String lexeme = readString(in);
+        Object literal = readValue(in);
+        return new Token(type, lexeme, literal, in.getInt());
+    }
+
+    private void writeValue(Object value) {
+        try {
+            if (value == null) {
+                out.writeByte(NIL);
+            } else if (value instanceof Boolean) {
+                out.writeByte((boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Long) {
+                out.writeByte(INTEGER);
+                out.writeLong((long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(NUMBER);
+                out.writeDouble((double) value);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                writeString((String) value);
+            } else {
+                throw new IllegalArgumentException(
+                        "Cannot serialize literal of type " + value.getClass().getName() + ".");
+            }
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case NIL: return null;
+            case TRUE: return true;
+            case FALSE: return false;
+            case NUMBER: return in.getDouble();
+            case STRING: return readString(in);
+            case INTEGER: return in.getLong();
+        }
+        throw new IllegalStateException("Unknown value tag " + tag + ".");
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        try {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalStateException("Bad string length " + length + ".");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeByte(byte value) {
+        try {
+            out.writeByte(value);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
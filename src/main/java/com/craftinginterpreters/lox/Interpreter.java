@@ -1,9 +1,62 @@
 package com.craftinginterpreters.lox;
 
 import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.LoxNumber;
+import com.craftinginterpreters.lox.model.LoxType;
 import com.craftinginterpreters.lox.model.Token;
+import com.craftinginterpreters.lox.model.TokenType;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
 
 public class Interpreter implements Expr.Visitor<Object> {
+    // How many operator steps may pass between two reads of the clock.
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final EvaluationLimits limits;
+    private final Writer out;
+    private final boolean flushEachLine;
+    private final StringBuilder line = new StringBuilder(64);
+    private char[] lineChars = new char[64];
+    private long stepsLeft;
+    private int stepsUntilClockCheck;
+    private long deadline;
+
+    public Interpreter() {
+        this(EvaluationLimits.UNLIMITED);
+    }
+
+    public Interpreter(EvaluationLimits limits) {
+        this(limits, new OutputStreamWriter(System.out, stdoutCharset()));
+    }
+
+    public Interpreter(EvaluationLimits limits, Writer out) {
+        this(limits, out, true);
+    }
+
+    // Batch callers pass flushEachLine = false and call flush() themselves.
+    public Interpreter(EvaluationLimits limits, Writer out, boolean flushEachLine) {
+        this.limits = limits;
+        this.out = out;
+        this.flushEachLine = flushEachLine;
+    }
+
+    // The charset System.out itself encodes with: stdout.encoding on JDK 18+, sun.stdout.encoding before.
+    static Charset stdoutCharset() {
+        for (String property : new String[] {"stdout.encoding", "sun.stdout.encoding"}) {
+            String encoding = System.getProperty(property);
+            if (encoding != null && Charset.isSupported(encoding)) {
+                return Charset.forName(encoding);
+            }
+        }
+        return Charset.defaultCharset();
+    }
+
     @Override
     public Object visitLiteralExpr(Expr.Literal expr) {
         return expr.value;
@@ -11,11 +64,17 @@ public class Interpreter implements Expr.Visitor<Object> {
 
     @Override
     public Object visitUnaryExpr(Expr.Unary expr) {
+        step(expr.operator);
         Object right = evaluate(expr.right);
         switch (expr.operator.tokenType) {
             case BANG:
                 return !isTruthy(right);
             case MINUS:
+                if (right instanceof Long) return LoxNumber.negate((long)right);
+                // An operand proven NUMBER by TypeInference needs no runtime check.
+                if (expr.right.type != LoxType.NUMBER) {
+                    checkNumberOperand(expr.operator, right);
+                }
                 return -(double)right;
         }
         // Unreachable.
@@ -23,13 +82,13 @@ public class Interpreter implements Expr.Visitor<Object> {
     }
 
     private void checkNumberOperand(Token operator, Object operand) {
-        if (operand instanceof Double) return;
+        if (LoxNumber.isNumber(operand)) return;
         throw new RuntimeError(operator, "Operand must be a number.");
     }
 
     private void checkNumberOperands(Token operator,
                                      Object left, Object right) {
-        if (left instanceof Double && right instanceof Double) return;
+        if (LoxNumber.isNumber(left) && LoxNumber.isNumber(right)) return;
 
         throw new RuntimeError(operator, "Operands must be numbers.");
     }
@@ -43,6 +102,37 @@ public class Interpreter implements Expr.Visitor<Object> {
         return expr.accept(this);
     }
 
+    private void step(Token operator) {
+        if (--stepsLeft < 0) {
+            throw new LimitExceededError(operator, LimitExceededError.Limit.STEPS,
+                    "Evaluation exceeded " + limits.maxSteps + " steps.");
+        }
+        if (--stepsUntilClockCheck <= 0) {
+            stepsUntilClockCheck = CLOCK_CHECK_INTERVAL;
+            if (limits.hasDeadline() && System.nanoTime() - deadline > 0) {
+                throw new LimitExceededError(operator, LimitExceededError.Limit.DEADLINE,
+                        "Evaluation exceeded its time limit.");
+            }
+        }
+    }
+
+    private void checkStringLength(Token operator, long length) {
+        if (length > limits.maxStringLength) {
+            throw new LimitExceededError(operator, LimitExceededError.Limit.STRING_LENGTH,
+                    "String result exceeds " + limits.maxStringLength + " characters.");
+        }
+    }
+
+    // Evaluates a whole expression under a fresh budget.
+    Object execute(Expr expression) {
+        stepsLeft = limits.maxSteps;
+        stepsUntilClockCheck = CLOCK_CHECK_INTERVAL;
+        if (limits.hasDeadline()) {
+            deadline = System.nanoTime() + limits.timeoutNanos;
+        }
+        return evaluate(expression);
+    }
+
     private boolean isTruthy(Object object) {
         if (object == null) return false;
         if (object instanceof Boolean) return (boolean)object;
@@ -51,39 +141,53 @@ public class Interpreter implements Expr.Visitor<Object> {
 
     @Override
     public Object visitBinaryExpr(Expr.Binary expr) {
+        step(expr.operator);
         Object left = evaluate(expr.left);
         Object right = evaluate(expr.right);
+        if (left instanceof Long && right instanceof Long) {
+            Object result = integerBinary(expr.operator, (long)left, (long)right);
+            if (result != null) return result;
+        }
+        // Operand types proven by TypeInference need no runtime checks.
+        if (expr.left.type == LoxType.NUMBER && expr.right.type == LoxType.NUMBER) {
+            Object result = doubleBinary(expr.operator,
+                    LoxNumber.toDouble(left), LoxNumber.toDouble(right));
+            if (result != null) return result;
+        } else if (expr.left.type == LoxType.STRING && expr.right.type == LoxType.STRING
+                && expr.operator.tokenType == TokenType.PLUS) {
+            return concatenate(expr.operator, (String)left, (String)right);
+        }
         switch (expr.operator.tokenType) {
             case GREATER:
                 checkNumberOperands(expr.operator, left, right);
-                return (double)left > (double)right;
+                return LoxNumber.toDouble(left) > LoxNumber.toDouble(right);
             case GREATER_EQUAL:
                 checkNumberOperands(expr.operator, left, right);
-                return (double)left >= (double)right;
+                return LoxNumber.toDouble(left) >= LoxNumber.toDouble(right);
             case LESS:
                 checkNumberOperands(expr.operator, left, right);
-                return (double)left < (double)right;
+                return LoxNumber.toDouble(left) < LoxNumber.toDouble(right);
             case LESS_EQUAL:
                 checkNumberOperands(expr.operator, left, right);
-                return (double)left <= (double)right;
+                return LoxNumber.toDouble(left) <= LoxNumber.toDouble(right);
             case MINUS:
                 checkNumberOperands(expr.operator, left, right);
-                return (double)left - (double)right;
+                return LoxNumber.toDouble(left) - LoxNumber.toDouble(right);
             case PLUS:
-                if (left instanceof Double && right instanceof Double) {
-                    return (double)left + (double)right;
+                if (LoxNumber.isNumber(left) && LoxNumber.isNumber(right)) {
+                    return LoxNumber.toDouble(left) + LoxNumber.toDouble(right);
                 }
                 if (left instanceof String && right instanceof String) {
-                    return (String)left + (String)right;
+                    return concatenate(expr.operator, (String)left, (String)right);
                 }
                 throw new RuntimeError(expr.operator,
                         "Operands must be two numbers or two strings.");
             case SLASH:
                 checkNumberOperands(expr.operator, left, right);
-                return (double)left / (double)right;
+                return LoxNumber.toDouble(left) / LoxNumber.toDouble(right);
             case STAR:
                 checkNumberOperands(expr.operator, left, right);
-                return (double)left * (double)right;
+                return LoxNumber.toDouble(left) * LoxNumber.toDouble(right);
             case BANG_EQUAL: return !isEqual(left, right);
             case EQUAL_EQUAL: return isEqual(left, right);
         }
@@ -91,30 +195,85 @@ public class Interpreter implements Expr.Visitor<Object> {
         return null;
     }
 
+    // Fast path for two integral operands; null means the operator needs the general path.
+    private Object integerBinary(Token operator, long left, long right) {
+        switch (operator.tokenType) {
+            case GREATER: return left > right;
+            case GREATER_EQUAL: return left >= right;
+            case LESS: return left < right;
+            case LESS_EQUAL: return left <= right;
+            case MINUS: return LoxNumber.subtract(left, right);
+            case PLUS: return LoxNumber.add(left, right);
+            case STAR: return LoxNumber.multiply(left, right);
+            case BANG_EQUAL: return left != right;
+            case EQUAL_EQUAL: return left == right;
+        }
+        return null;
+    }
+
+    // Arithmetic and comparisons on two proven numbers; null means equality, handled by isEqual.
+    private Object doubleBinary(Token operator, double left, double right) {
+        switch (operator.tokenType) {
+            case GREATER: return left > right;
+            case GREATER_EQUAL: return left >= right;
+            case LESS: return left < right;
+            case LESS_EQUAL: return left <= right;
+            case MINUS: return left - right;
+            case PLUS: return left + right;
+            case SLASH: return left / right;
+            case STAR: return left * right;
+        }
+        return null;
+    }
+
+    private String concatenate(Token operator, String left, String right) {
+        checkStringLength(operator, left.length() + (long)right.length());
+        return left + right;
+    }
+
     private boolean isEqual(Object a, Object b) {
-        if (a == null && b == null) return true;
+        // Interned literals and shared number boxes compare by identity first.
+        if (a == b) return true;
         if (a == null) return false;
+        if (LoxNumber.isNumber(a) && LoxNumber.isNumber(b)) return LoxNumber.equal(a, b);
         return a.equals(b);
     }
 
-    private String stringify(Object object) {
-        if (object == null) return "nil";
-        if (object instanceof Double) {
-            String text = object.toString();
-            if (text.endsWith(".0")) {
-                text = text.substring(0, text.length() - 2);
-            }
-            return text;
+    String stringify(Object object) {
+        StringBuilder text = new StringBuilder();
+        ValueFormatter.append(text, object);
+        return text.toString();
+    }
+
+    // Formats into the reusable line buffer and hands the chars to the writer without a String copy.
+    private void printLine(Object value) throws IOException {
+        line.setLength(0);
+        ValueFormatter.append(line, value);
+        line.append(LINE_SEPARATOR);
+
+        int length = line.length();
+        if (lineChars.length < length) {
+            lineChars = new char[Math.max(length, lineChars.length * 2)];
+        }
+        line.getChars(0, length, lineChars, 0);
+        out.write(lineChars, 0, length);
+        if (flushEachLine) {
+            out.flush();
         }
-        return object.toString();
+    }
+
+    void flush() throws IOException {
+        out.flush();
     }
 
     void interpret(Expr expression) {
         try {
-            Object value = evaluate(expression);
-            System.out.println(stringify(value));
+            Object value = execute(expression);
+            printLine(value);
         } catch (RuntimeError error) {
             Lox.runtimeError(error);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
         }
     }
 }
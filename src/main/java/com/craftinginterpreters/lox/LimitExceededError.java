@@ -0,0 +1,15 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Token;
+
+/** Raised when an evaluation runs past one of its {@link EvaluationLimits}. */
+class LimitExceededError extends RuntimeError {
+    enum Limit { STEPS, STRING_LENGTH, DEADLINE }
+
+    final Limit limit;
+
+    LimitExceededError(Token token, Limit limit, String message) {
+        super(token, message);
+        this.limit = limit;
+    }
+}
@@ -1,29 +1,43 @@
 package com.craftinginterpreters.lox;
 
 import com.craftinginterpreters.lox.model.Expr;
-import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.ParallelScanner;
 import com.craftinginterpreters.lox.model.Token;
 import com.craftinginterpreters.lox.model.TokenType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @SpringBootApplication
 public class Lox {
 	private static final Interpreter interpreter = new Interpreter();
-	static boolean hadError = false;
-	static boolean hadRuntimeError = false;
+	// Set -Dlox.cacheDir=<dir> to reuse parsed trees across runs of unchanged scripts.
+	private static final String CACHE_DIR_PROPERTY = "lox.cacheDir";
+	// Error state is per thread, so concurrent runs (see BatchRunner) stay isolated.
+	private static final ThreadLocal<ErrorReporter> reporter =
+			ThreadLocal.withInitial(() -> new ErrorReporter(System.err));
 
 	public static void main(String[] args) throws IOException {
-		if (args.length > 1) {
-			System.err.println("Usage: jlox [script]");
+		if (args.length == 2 && args[0].equals("--batch")) {
+			runBatch(args[1]);
+		} else if (args.length > 1) {
+			System.err.println("Usage: jlox [script | --stream | --batch <directory or glob>]");
 			System.exit(64);
+		} else if (args.length == 1 && args[0].equals("--stream")) {
+			runStream();
 		} else if (args.length == 1) {
 			runFile(args[0]);
 		} else {
@@ -33,12 +47,17 @@ public class Lox {
 
 	private static void runFile(String filePath) throws IOException {
 		byte[] bytes = Files.readAllBytes(Paths.get(filePath));
-		run(new String(bytes, Charset.defaultCharset()));
+		String cacheDir = System.getProperty(CACHE_DIR_PROPERTY);
+		if (cacheDir == null) {
+			run(new String(bytes, Charset.defaultCharset()));
+		} else {
+			runCached(bytes, new ScriptCache(Paths.get(cacheDir)));
+		}
 
-		if (hadError) {
+		if (reporter().hadError) {
 			System.exit(65);
 		}
-		if (hadRuntimeError) {
+		if (reporter().hadRuntimeError) {
 			System.exit(70);
 		}
 	}
@@ -54,53 +73,151 @@ public class Lox {
 				break;
 			}
 			run(line);
-			hadError = false;
+			reporter().hadError = false;
 		}
 	}
 
-	private static void run(String sourceInput) {
-		Scanner scanner = new Scanner(sourceInput);
-		List<Token> tokenList = scanner.scanTokens();
+	// Evaluates one expression per stdin line, without prompts or debug output.
+	private static void runStream() throws IOException {
+		BufferedReader input = new BufferedReader(new InputStreamReader(System.in), 64 * 1024);
+		StreamRunner runner = new StreamRunner(input,
+				new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), Interpreter.stdoutCharset()),
+				System.err);
+
+		long start = System.nanoTime();
+		int exitStatus;
+		try {
+			exitStatus = runner.run();
+		} catch (InterruptedException error) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.err.printf("%d lines in %.3f s (%.0f lines/s)%n",
+				runner.lineCount(), seconds, runner.lineCount() / seconds);
+
+		if (exitStatus != 0) {
+			System.exit(exitStatus);
+		}
+	}
+
+	// Evaluates every matching file in this JVM and prints a per-file summary.
+	private static void runBatch(String target) throws IOException {
+		List<Path> paths;
+		try {
+			paths = BatchRunner.collect(target);
+		} catch (NoSuchFileException error) {
+			System.err.println("No such file or directory: " + error.getFile());
+			System.exit(66);
+			return;
+		}
+		ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		long start = System.nanoTime();
+		List<BatchRunner.Result> results;
+		try {
+			results = new BatchRunner(workers).run(paths);
+		} catch (InterruptedException error) {
+			Thread.currentThread().interrupt();
+			return;
+		} finally {
+			workers.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		BatchRunner.writeSummary(results, System.out);
+		int exitStatus = 0;
+		int failed = 0;
+		for (BatchRunner.Result result : results) {
+			if (result.exitStatus != 0) failed++;
+			exitStatus = Math.max(exitStatus, result.exitStatus);
+		}
+		System.err.printf("%d files (%d failed) in %.3f s%n", results.size(), failed, seconds);
+		System.exit(exitStatus);
+	}
 
-		System.out.println("> Tokens from source file");
-		for (Token token : tokenList) {
-			System.out.println(token);
+	// A hit has no tokens to dump, so cached runs never print them; output is the same on a hit or a miss.
+	private static void runCached(byte[] bytes, ScriptCache cache) {
+		byte[] sourceHash = ScriptCache.hash(bytes);
+		Expr expression = cache.load(sourceHash);
+		if (expression == null) {
+			expression = parse(new String(bytes, Charset.defaultCharset()), false);
+			if (reporter().hadError) return;
+			try {
+				cache.store(sourceHash, expression);
+			} catch (IOException error) {
+				System.err.println("Warning: could not write script cache: " + error);
+			}
+		}
+		evaluate(expression);
+	}
+
+	private static Expr parse(String sourceInput, boolean dumpTokens) {
+		// Large sources are split across threads; small ones are scanned in place.
+		List<Token> tokens = new ParallelScanner(sourceInput).scanTokens();
+
+		if (dumpTokens) {
+			System.out.println("> Tokens from source file");
+			for (Token token : tokens) {
+				System.out.println(token);
+			}
 		}
 
-		List<Token> tokens = scanner.scanTokens();
 		Parser parser = new Parser(tokens);
-		Expr expression = parser.parse();
+		return parser.parse();
+	}
 
-		// Stop if there was a syntax error.
-		if (hadError) return;
+	private static void evaluate(Expr expression) {
 		System.out.println(new AstPrinter().print(expression));
 
+		TypeInference.annotate(expression);
 		interpreter.interpret(expression);
 	}
 
+	private static void run(String sourceInput) {
+		Expr expression = parse(sourceInput, true);
+
+		// Stop if there was a syntax error.
+		if (reporter().hadError) return;
+		evaluate(expression);
+	}
+
+	static ErrorReporter reporter() {
+		return reporter.get();
+	}
+
+	// Routes this thread's errors to the given reporter until clearReporter().
+	static void useReporter(ErrorReporter errorReporter) {
+		reporter.set(errorReporter);
+	}
+
+	static void clearReporter() {
+		reporter.remove();
+	}
+
 	public static void error(int lineNumber, String errorMessage) {
 		report(lineNumber, "", errorMessage);
 	}
 
 	public static void report(int lineNumber, String where, String message) {
-		System.err.println(
+		ErrorReporter errorReporter = reporter();
+		errorReporter.err.println(
 				"[line " + lineNumber + "] Error" + where + ": " + message
 		);
-		hadError = true;
+		errorReporter.hadError = true;
 	}
 
-	static Throwable error(Token token, String message) {
+	static void error(Token token, String message) {
 		if (token.tokenType == TokenType.EOF) {
 			report(token.lineNumber, " at end", message);
 		} else {
 			report(token.lineNumber, " at '" + token.lexeme + "'", message);
 		}
-		return null;
 	}
 
 	static void runtimeError(RuntimeError error) {
-		System.err.println(error.getMessage() +
+		ErrorReporter errorReporter = reporter();
+		errorReporter.err.println(error.getMessage() +
 				"\n[line " + error.token.lineNumber + "]");
-		hadRuntimeError = true;
+		errorReporter.hadRuntimeError = true;
 	}
 }
@@ -6,8 +6,6 @@ import com.craftinginterpreters.lox.model.TokenType;
 
 import java.util.List;
 
-import static com.craftinginterpreters.lox.Lox.error;
-
 public class Parser {
     private static class ParseError extends RuntimeException {}
     private final List<Token> tokens;
@@ -22,37 +20,55 @@ public class Parser {
             return expression();
         } catch (ParseError error) {
             return null;
-        } catch (Throwable exception) {
-            System.out.println("Exception -> " + exception);
+        } catch (StackOverflowError error) {
+            Lox.error(peek(), "Expression is nested too deeply.");
             return null;
         }
     }
 
-    private Expr expression() throws Throwable {
-        return equality();
-    }
+    // Binding power of each binary operator, indexed by TokenType.ordinal(); 0 means none.
+    private static final int[] BINARY_PRECEDENCE = new int[TokenType.values().length];
+    private static final int EQUALITY = 1;
+    private static final int COMPARISON = 2;
+    private static final int TERM = 3;
+    private static final int FACTOR = 4;
 
-    // equality → comparison ( ( "!=" | "==" ) comparison )* ;
-    private Expr equality() throws Throwable {
-        Expr expr = comparison();
+    static {
+        BINARY_PRECEDENCE[TokenType.BANG_EQUAL.ordinal()] = EQUALITY;
+        BINARY_PRECEDENCE[TokenType.EQUAL_EQUAL.ordinal()] = EQUALITY;
+        BINARY_PRECEDENCE[TokenType.GREATER.ordinal()] = COMPARISON;
+        BINARY_PRECEDENCE[TokenType.GREATER_EQUAL.ordinal()] = COMPARISON;
+        BINARY_PRECEDENCE[TokenType.LESS.ordinal()] = COMPARISON;
+        BINARY_PRECEDENCE[TokenType.LESS_EQUAL.ordinal()] = COMPARISON;
+        BINARY_PRECEDENCE[TokenType.MINUS.ordinal()] = TERM;
+        BINARY_PRECEDENCE[TokenType.PLUS.ordinal()] = TERM;
+        BINARY_PRECEDENCE[TokenType.SLASH.ordinal()] = FACTOR;
+        BINARY_PRECEDENCE[TokenType.STAR.ordinal()] = FACTOR;
+    }
 
-        while (match(TokenType.BANG_EQUAL, TokenType.EQUAL_EQUAL)) {
-            Token operator = previous();
-            Expr right = comparison();
-            expr = new Expr.Binary(expr, operator, right);
-        }
-        return expr;
+    private Expr expression() {
+        return binary(EQUALITY);
     }
 
-    private boolean match(TokenType... types) {
-        for (TokenType type : types) {
-            if (check(type)) {
-                advance();
-                return true;
+    // equality   → comparison ( ( "!=" | "==" ) comparison )* ;
+    // comparison → term ( ( ">" | ">=" | "<" | "<=" ) term )* ;
+    // term       → factor ( ( "-" | "+" ) factor )* ;
+    // factor     → unary ( ( "/" | "*" ) unary )* ;
+    //
+    // Precedence climbing over BINARY_PRECEDENCE: parses operators binding at
+    // least as tightly as minPrecedence, all left-associative.
+    private Expr binary(int minPrecedence) {
+        Expr expr = unary();
+        for (;;) {
+            Token operator = peek();
+            int precedence = BINARY_PRECEDENCE[operator.tokenType.ordinal()];
+            if (precedence == 0 || precedence < minPrecedence) {
+                return expr;
             }
+            current++;
+            Expr right = binary(precedence + 1);
+            expr = new Expr.Binary(expr, operator, right);
         }
-
-        return false;
     }
 
     private boolean check(TokenType type) {
@@ -79,41 +95,11 @@ public class Parser {
         return tokens.get(current - 1);
     }
 
-    // comparison → term ( ( ">" | ">=" | "<" | "<=" ) term )* ;
-    private Expr comparison() throws Throwable {
-        Expr expr = term();
-        while (match(TokenType.GREATER, TokenType.GREATER_EQUAL, TokenType.LESS, TokenType.LESS_EQUAL)) {
-            Token operator = previous();
-            Expr right = term();
-            expr = new Expr.Binary(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private Expr term() throws Throwable {
-        Expr expr = factor();
-        while (match(TokenType.MINUS, TokenType.PLUS)) {
-            Token operator = previous();
-            Expr right = factor();
-            expr = new Expr.Binary(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private Expr factor() throws Throwable {
-        Expr expr = unary();
-        while (match(TokenType.SLASH, TokenType.STAR)) {
-            Token operator = previous();
-            Expr right = unary();
-            expr = new Expr.Binary(expr, operator, right);
-        }
-        return expr;
-    }
-
     //    unary → ( "!" | "-" ) unary | primary ;
-    private Expr unary() throws Throwable {
-        if (match(TokenType.BANG, TokenType.MINUS)) {
-            Token operator = previous();
+    private Expr unary() {
+        TokenType type = peek().tokenType;
+        if (type == TokenType.BANG || type == TokenType.MINUS) {
+            Token operator = advance();
             Expr right = unary();
             return new Expr.Unary(operator, right);
         }
@@ -122,26 +108,41 @@ public class Parser {
 
     //    primary → NUMBER | STRING | "true" | "false" | "nil"
     //            | "(" expression ")" ;
-    private Expr primary() throws Throwable {
-        if (match(TokenType.FALSE)) return new Expr.Literal(false);
-        if (match(TokenType.TRUE)) return new Expr.Literal(true);
-        if (match(TokenType.NIL)) return new Expr.Literal(null);
-        if (match(TokenType.NUMBER, TokenType.STRING)) {
-            return new Expr.Literal(previous().literal);
-        }
-        if (match(TokenType.LEFT_PAREN)) {
-            Expr expr = expression();
-            consume(TokenType.RIGHT_PAREN, "Expect ')' after expression.");
-            return new Expr.Grouping(expr);
+    private Expr primary() {
+        switch (peek().tokenType) {
+            case FALSE:
+                advance();
+                return new Expr.Literal(false);
+            case TRUE:
+                advance();
+                return new Expr.Literal(true);
+            case NIL:
+                advance();
+                return new Expr.Literal(null);
+            case NUMBER:
+            case STRING:
+                return new Expr.Literal(advance().literal);
+            case LEFT_PAREN: {
+                advance();
+                Expr expr = expression();
+                consume(TokenType.RIGHT_PAREN, "Expect ')' after expression.");
+                return new Expr.Grouping(expr);
+            }
         }
         throw error(peek(), "Expect expression.");
     }
 
-    private Token consume(TokenType type, String message) throws Throwable {
+    private Token consume(TokenType type, String message) {
         if (check(type)) return advance();
         throw error(peek(), message);
     }
 
+    // Reports through Lox and returns the exception for the caller to throw.
+    private ParseError error(Token token, String message) {
+        Lox.error(token, message);
+        return new ParseError();
+    }
+
     private void synchronize() {
         advance();
         while (!isAtEnd()) {
@@ -0,0 +1,85 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * On-disk cache of parsed scripts, keyed by the SHA-256 of the source text.
+ * Entries written by another {@link ExprCodec#FORMAT_VERSION} are ignored
+ * and overwritten on the next store.
+ */
+class ScriptCache {
+    private static final int MAGIC = 0x4C4F5843;       // "LOXC"
+    private static final String EXTENSION = ".loxc";
+
+    private final Path directory;
+
+    ScriptCache(Path directory) {
+        this.directory = directory;
+    }
+
+    static byte[] hash(byte[] source) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(source);
+        } catch (NoSuchAlgorithmException error) {
+            throw new IllegalStateException(error);
+        }
+    }
+
+    // Returns the cached tree for this source hash, or null on a miss.
+    Expr load(byte[] sourceHash) {
+        Path entry = entryFor(sourceHash);
+        if (!Files.isRegularFile(entry)) return null;
+
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) return null;
+            if (buffer.getInt() != ExprCodec.FORMAT_VERSION) return null;
+
+            byte[] storedHash = new byte[sourceHash.length];
+            buffer.get(storedHash);
+            if (!Arrays.equals(storedHash, sourceHash)) return null;
+
+            return ExprCodec.read(buffer);
+        } catch (IOException | RuntimeException | StackOverflowError error) {
+            // A truncated or corrupt entry is just a miss.
+            return null;
+        }
+    }
+
+    void store(byte[] sourceHash, Expr expression) throws IOException {
+        Files.createDirectories(directory);
+        Path entry = entryFor(sourceHash);
+        Path temp = Files.createTempFile(directory, "entry", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(ExprCodec.FORMAT_VERSION);
+                out.write(sourceHash);
+                ExprCodec.write(expression, out);
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path entryFor(byte[] sourceHash) {
+        return directory.resolve(HexFormat.of().formatHex(sourceHash) + EXTENSION);
+    }
+}
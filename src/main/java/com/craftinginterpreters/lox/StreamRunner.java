@@ -0,0 +1,208 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.StringTable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Non-interactive filter: one expression per input line, one result per output line.
+ * A line that fails to parse or evaluate still gets its output line, ERROR_MARKER,
+ * so output line n always belongs to input line n; the message itself goes to the
+ * error stream. Every input line is scanned on its own, so messages say [line 1].
+ * Reading, scanning/parsing and evaluating run on separate threads joined by
+ * bounded queues, so a slow stage holds back the ones before it. Lines travel
+ * in batches to keep queue hand-offs off the per-line cost; each stage is a
+ * single thread, so results stay in input order.
+ */
+class StreamRunner {
+    static final String ERROR_MARKER = "!error";
+
+    private static final int BATCH_SIZE = 512;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final List<?> END_OF_INPUT = new ArrayList<>();
+    // Stands in for a line whose scan, parse or annotation crashed on the parser thread.
+    private static final Expr CRASHED = new Expr.Literal(null);
+
+    private final BufferedReader input;
+    private final Writer output;
+    private final PrintStream err;
+    private final BlockingQueue<List<String>> lines = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<List<Expr>> expressions = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile Throwable readFailure;
+    private volatile Throwable parseFailure;
+    private long lineCount;
+
+    StreamRunner(BufferedReader input, Writer output, PrintStream err) {
+        this.input = input;
+        this.output = new BufferedWriter(output, 64 * 1024);
+        this.err = err;
+    }
+
+    long lineCount() {
+        return lineCount;
+    }
+
+    // Runs until input is exhausted. Returns the exit status runFile would give:
+    // 65 if any line had a syntax error, else 70 if any had a runtime error, else 0.
+    int run() throws IOException, InterruptedException {
+        Thread reader = new Thread(this::readLines, "lox-stream-reader");
+        ParseStage parser = new ParseStage();
+        Thread parserThread = new Thread(parser, "lox-stream-parser");
+        reader.setDaemon(true);
+        parserThread.setDaemon(true);
+        reader.start();
+        parserThread.start();
+
+        Interpreter interpreter = new Interpreter(EvaluationLimits.UNLIMITED, output, false);
+        ErrorReporter errors = new ErrorReporter(err);
+        boolean hadRuntimeError = false;
+        Lox.useReporter(errors);
+        try {
+            for (;;) {
+                List<Expr> batch = expressions.take();
+                if (batch == END_OF_INPUT) break;
+                for (Expr expression : batch) {
+                    // Lines with syntax errors or crashes were already reported by the parser thread.
+                    if (expression == null || expression == CRASHED) {
+                        hadRuntimeError |= expression == CRASHED;
+                        writeErrorMarker();
+                        continue;
+                    }
+                    try {
+                        interpreter.interpret(expression);
+                    } catch (RuntimeException | StackOverflowError error) {
+                        // As in BatchRunner, a crash that would end the run only fails its own line.
+                        errors.err.println("Internal error: " + error);
+                        errors.hadRuntimeError = true;
+                    }
+                    if (errors.hadRuntimeError) {
+                        errors.hadRuntimeError = false;
+                        hadRuntimeError = true;
+                        writeErrorMarker();
+                    }
+                }
+            }
+        } finally {
+            Lox.clearReporter();
+            // Whatever was evaluated before a failure still reaches the output.
+            interpreter.flush();
+        }
+
+        parserThread.join();
+        if (readFailure != null) {
+            throw new IOException("Failed to read input.", readFailure);
+        }
+        if (parseFailure != null) {
+            throw new IllegalStateException("Parsing the input failed.", parseFailure);
+        }
+        return parser.hadError ? 65 : hadRuntimeError ? 70 : 0;
+    }
+
+    private void writeErrorMarker() throws IOException {
+        output.write(ERROR_MARKER);
+        output.write(LINE_SEPARATOR);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readLines() {
+        try {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = input.readLine()) != null) {
+                batch.add(line);
+                if (batch.size() == BATCH_SIZE) {
+                    lines.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                lines.put(batch);
+            }
+        } catch (IOException | RuntimeException error) {
+            readFailure = error;
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Always end the stream, or the stages after this one would wait forever.
+            putUninterruptibly(lines, (List<String>) END_OF_INPUT);
+        }
+    }
+
+    private class ParseStage implements Runnable {
+        // Written by the parser thread, read by the caller after join().
+        boolean hadError;
+        // One table for the whole stream; only the parser thread touches it.
+        private final StringTable strings = new StringTable();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            Lox.useReporter(new ErrorReporter(err));
+            try {
+                for (;;) {
+                    List<String> batch = lines.take();
+                    if (batch == END_OF_INPUT) break;
+                    List<Expr> parsed = new ArrayList<>(batch.size());
+                    for (String line : batch) {
+                        parsed.add(parse(line));
+                    }
+                    lineCount += batch.size();
+                    expressions.put(parsed);
+                }
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable error) {
+                parseFailure = error;
+            } finally {
+                putUninterruptibly(expressions, (List<Expr>) END_OF_INPUT);
+            }
+        }
+
+        private Expr parse(String line) {
+            ErrorReporter errorReporter = Lox.reporter();
+            Expr expression;
+            try {
+                expression = new Parser(new Scanner(line, strings).scanTokens()).parse();
+                if (!errorReporter.hadError) {
+                    TypeInference.annotate(expression);
+                }
+            } catch (RuntimeException | StackOverflowError error) {
+                errorReporter.err.println("Internal error: " + error);
+                errorReporter.hadError = false;
+                return CRASHED;
+            }
+            if (errorReporter.hadError) {
+                errorReporter.hadError = false;
+                hadError = true;
+                return null;
+            }
+            return expression;
+        }
+    }
+
+    private static <T> void putUninterruptibly(BlockingQueue<T> queue, T value) {
+        boolean interrupted = false;
+        for (;;) {
+            try {
+                queue.put(value);
+                break;
+            } catch (InterruptedException error) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
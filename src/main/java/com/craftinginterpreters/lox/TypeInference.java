@@ -0,0 +1,84 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.LoxNumber;
+import com.craftinginterpreters.lox.model.LoxType;
+
+/**
+ * Annotates every node with the type its value must have whenever its
+ * evaluation completes normally. An operator that would fail at runtime
+ * never completes, so "-" is always NUMBER and comparisons are always
+ * BOOLEAN; only "+" on mixed or unknown operands stays UNKNOWN.
+ * Evaluators may skip operand checks where both operands are proven.
+ */
+class TypeInference implements Expr.Visitor<LoxType> {
+    private static final TypeInference INSTANCE = new TypeInference();
+
+    private TypeInference() {}
+
+    static void annotate(Expr expression) {
+        expression.accept(INSTANCE);
+    }
+
+    @Override
+    public LoxType visitBinaryExpr(Expr.Binary expr) {
+        LoxType left = expr.left.accept(this);
+        LoxType right = expr.right.accept(this);
+        return expr.type = binaryType(expr, left, right);
+    }
+
+    private LoxType binaryType(Expr.Binary expr, LoxType left, LoxType right) {
+        switch (expr.operator.tokenType) {
+            case GREATER:
+            case GREATER_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+            case BANG_EQUAL:
+            case EQUAL_EQUAL:
+                return LoxType.BOOLEAN;
+            case MINUS:
+            case SLASH:
+            case STAR:
+                return LoxType.NUMBER;
+            case PLUS:
+                if (left == right && (left == LoxType.NUMBER || left == LoxType.STRING)) {
+                    return left;
+                }
+                return LoxType.UNKNOWN;
+        }
+        return LoxType.UNKNOWN;
+    }
+
+    @Override
+    public LoxType visitGroupingExpr(Expr.Grouping expr) {
+        return expr.type = expr.expression.accept(this);
+    }
+
+    @Override
+    public LoxType visitLiteralExpr(Expr.Literal expr) {
+        Object value = expr.value;
+        LoxType type;
+        if (value == null) {
+            type = LoxType.NIL;
+        } else if (value instanceof Boolean) {
+            type = LoxType.BOOLEAN;
+        } else if (LoxNumber.isNumber(value)) {
+            type = LoxType.NUMBER;
+        } else if (value instanceof String) {
+            type = LoxType.STRING;
+        } else {
+            type = LoxType.UNKNOWN;
+        }
+        return expr.type = type;
+    }
+
+    @Override
+    public LoxType visitUnaryExpr(Expr.Unary expr) {
+        expr.right.accept(this);
+        switch (expr.operator.tokenType) {
+            case BANG: return expr.type = LoxType.BOOLEAN;
+            case MINUS: return expr.type = LoxType.NUMBER;
+        }
+        return expr.type = LoxType.UNKNOWN;
+    }
+}
@@ -0,0 +1,53 @@
+package com.craftinginterpreters.lox;
+
+/**
+ * Writes Lox values as text straight into a caller-owned buffer, producing
+ * exactly what {@code Double.toString} with a trailing ".0" trimmed would.
+ */
+final class ValueFormatter {
+    // Below this magnitude Double.toString prints integral values as plain digits.
+    private static final long PLAIN_INTEGER_LIMIT = 10_000_000L;
+
+    private ValueFormatter() {}
+
+    static void append(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("nil");
+        } else if (value instanceof Long) {
+            appendLong(out, (long) value);
+        } else if (value instanceof Double) {
+            appendDouble(out, (double) value);
+        } else if (value instanceof Boolean) {
+            out.append((boolean) value ? "true" : "false");
+        } else if (value instanceof String) {
+            out.append((String) value);
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void appendLong(StringBuilder out, long value) {
+        if (value > -PLAIN_INTEGER_LIMIT && value < PLAIN_INTEGER_LIMIT) {
+            out.append(value);
+        } else {
+            appendDouble(out, (double) value);
+        }
+    }
+
+    private static void appendDouble(StringBuilder out, double value) {
+        long integral = (long) value;
+        if (integral == value && integral > -PLAIN_INTEGER_LIMIT && integral < PLAIN_INTEGER_LIMIT
+                && (integral != 0 || Double.doubleToRawLongBits(value) == 0)) {
+            out.append(integral);
+            return;
+        }
+
+        // StringBuilder.append(double) formats in place without an intermediate String.
+        int start = out.length();
+        out.append(value);
+        int end = out.length();
+        if (end - start >= 2 && out.charAt(end - 2) == '.' && out.charAt(end - 1) == '0') {
+            out.setLength(end - 2);
+        }
+    }
+}
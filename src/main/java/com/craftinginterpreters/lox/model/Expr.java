@@ -9,6 +9,9 @@ public abstract class Expr {
         R visitUnaryExpr(Unary expr);
     }
 
+    // Proven result type, filled in by TypeInference; UNKNOWN keeps every runtime check.
+    public LoxType type = LoxType.UNKNOWN;
+
     // Accept method that all Expr subclasses must implement
     public abstract <R> R accept(Visitor<R> visitor);
 
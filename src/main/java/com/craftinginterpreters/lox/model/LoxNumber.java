@@ -0,0 +1,77 @@
+package com.craftinginterpreters.lox.model;
+
+/**
+ * Lox numbers are doubles, but integral values are carried as {@link Long}
+ * while they stay within +/-2^53, where every long converts to a double exactly.
+ * Each operation falls back to double arithmetic whenever the exact result
+ * would leave that range or would be -0, so results always match pure doubles.
+ */
+public final class LoxNumber {
+    public static final long MAX_EXACT_INTEGER = 1L << 53;
+
+    private LoxNumber() {}
+
+    public static boolean isNumber(Object value) {
+        return value instanceof Long || value instanceof Double;
+    }
+
+    public static double toDouble(Object number) {
+        return ((Number) number).doubleValue();
+    }
+
+    // Parses a run of decimal digits the way Double.parseDouble would.
+    public static Object parseIntegral(String digits) {
+        if (digits.length() <= 16) {
+            long value = Long.parseLong(digits);
+            if (value <= MAX_EXACT_INTEGER) return value;
+        }
+        return Double.parseDouble(digits);
+    }
+
+    public static Object add(long left, long right) {
+        long result = left + right;
+        if (isExact(result)) return result;
+        return (double) left + (double) right;
+    }
+
+    public static Object subtract(long left, long right) {
+        long result = left - right;
+        if (isExact(result)) return result;
+        return (double) left - (double) right;
+    }
+
+    public static Object multiply(long left, long right) {
+        long high = Math.multiplyHigh(left, right);
+        long result = left * right;
+        boolean fits = high == (result >> 63);
+        if (fits && isExact(result) && (result != 0 || (left >= 0 && right >= 0))) {
+            return result;
+        }
+        return (double) left * (double) right;
+    }
+
+    public static Object negate(long value) {
+        if (value == 0) return -0.0;
+        return -value;
+    }
+
+    // Same result as Double.equals on the double values.
+    public static boolean equal(Object left, Object right) {
+        if (left instanceof Long && right instanceof Long) {
+            return (long) left == (long) right;
+        }
+        return Double.compare(toDouble(left), toDouble(right)) == 0;
+    }
+
+    // Double-compatible text for debug output: 3 prints as "3.0".
+    public static String toDebugString(Object value) {
+        if (value instanceof Long) {
+            return Double.toString((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static boolean isExact(long value) {
+        return value >= -MAX_EXACT_INTEGER && value <= MAX_EXACT_INTEGER;
+    }
+}
@@ -0,0 +1,6 @@
+package com.craftinginterpreters.lox.model;
+
+// The type an expression's value is proven to have, if its evaluation completes.
+public enum LoxType {
+    NUMBER, STRING, BOOLEAN, NIL, UNKNOWN
+}
@@ -0,0 +1,171 @@
+package com.craftinginterpreters.lox.model;
+
+import com.craftinginterpreters.lox.Lox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Scans a large source in chunks on several threads. Chunks are cut only at
+ * newlines outside string literals, so no token spans two chunks, and each
+ * chunk starts with the line number a sequential scan would have there.
+ * The tokens and reported errors are identical to {@link Scanner#scanTokens()}.
+ */
+public class ParallelScanner {
+    // Smaller inputs are not worth the hand-off to other threads.
+    private static final int MIN_CHUNK_LENGTH = 64 * 1024;
+
+    static class PendingError {
+        final int lineNumber;
+        final String message;
+
+        PendingError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+    }
+
+    private final String source;
+    private final ExecutorService executor;
+    private final int chunkCount;
+
+    public ParallelScanner(String source) {
+        this(source, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public ParallelScanner(String source, ExecutorService executor, int chunkCount) {
+        this.source = source;
+        this.executor = executor;
+        this.chunkCount = Math.max(1, Math.min(chunkCount, source.length() / MIN_CHUNK_LENGTH));
+    }
+
+    public List<Token> scanTokens() {
+        if (chunkCount == 1) {
+            return new Scanner(source).scanTokens();
+        }
+
+        // boundaries[i] is where chunk i starts; lines[i] is the line number there.
+        int[] boundaries = new int[chunkCount + 1];
+        int[] lines = new int[chunkCount + 1];
+        int found = findBoundaries(boundaries, lines);
+
+        List<Callable<Chunk>> tasks = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int from = boundaries[i];
+            int end = boundaries[i + 1];
+            int lineNumber = lines[i];
+            tasks.add(() -> scanChunk(from, end, lineNumber));
+        }
+
+        List<Chunk> chunks = new ArrayList<>(found);
+        try {
+            for (Future<Chunk> future : executor.invokeAll(tasks)) {
+                chunks.add(future.get());
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning.", error);
+        } catch (ExecutionException error) {
+            throw new IllegalStateException("Scanning a chunk failed.", error.getCause());
+        }
+
+        int tokenCount = 1;
+        for (Chunk chunk : chunks) {
+            tokenCount += chunk.tokens.size();
+        }
+        List<Token> tokenList = new ArrayList<>(tokenCount);
+        // The first chunk's table becomes the run's; later chunks' literals are folded into it.
+        StringTable strings = chunks.get(0).strings;
+        for (Chunk chunk : chunks) {
+            if (chunk.strings == strings) {
+                tokenList.addAll(chunk.tokens);
+            } else {
+                for (Token token : chunk.tokens) {
+                    tokenList.add(token.tokenType == TokenType.STRING ? canonical(strings, token) : token);
+                }
+            }
+            for (PendingError error : chunk.errors) {
+                Lox.error(error.lineNumber, error.message);
+            }
+        }
+        tokenList.add(new Token(TokenType.EOF, "", null, lines[found]));
+        return tokenList;
+    }
+
+    // Equal literals from every chunk end up as the same String objects, as in a sequential scan.
+    private static Token canonical(StringTable strings, Token token) {
+        StringTable.Entry entry = strings.intern((String) token.literal, token.lexeme);
+        if (entry.literal == token.literal) return token;
+        return new Token(TokenType.STRING, entry.lexeme, entry.literal, token.lineNumber);
+    }
+
+    private static class Chunk {
+        final List<Token> tokens;
+        final List<PendingError> errors;
+        final StringTable strings;
+
+        Chunk(List<Token> tokens, List<PendingError> errors, StringTable strings) {
+            this.tokens = tokens;
+            this.errors = errors;
+            this.strings = strings;
+        }
+    }
+
+    private Chunk scanChunk(int from, int end, int lineNumber) {
+        List<PendingError> errors = new ArrayList<>();
+        // Chunks scan with tables of their own; scanTokens() merges them in order.
+        StringTable strings = new StringTable();
+        List<Token> tokens = new Scanner(source, from, end, lineNumber, strings, errors).scanChunk();
+        return new Chunk(tokens, errors, strings);
+    }
+
+    /*
+     * One cheap sequential pass that only tracks whether we are inside a
+     * string literal or a "//" comment, mirroring Scanner's rules. Returns
+     * the number of chunks; boundaries[count] is the source length and
+     * lines[count] the final line number, which the EOF token carries.
+     */
+    private int findBoundaries(int[] boundaries, int[] lines) {
+        int length = source.length();
+        int target = length / chunkCount;
+        int count = 0;
+        int lineNumber = 1;
+        boolean inString = false;
+
+        boundaries[0] = 0;
+        lines[0] = 1;
+        for (int i = 0; i < length; i++) {
+            char chr = source.charAt(i);
+            if (inString) {
+                if (chr == '"') {
+                    inString = false;
+                } else if (chr == '\n') {
+                    lineNumber++;
+                }
+            } else if (chr == '"') {
+                inString = true;
+            } else if (chr == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+                // Skip to the newline ending the comment; the loop handles it next.
+                int newline = source.indexOf('\n', i + 2);
+                i = (newline < 0 ? length : newline) - 1;
+            } else if (chr == '\n') {
+                lineNumber++;
+                if (i + 1 >= (count + 1) * target && count + 1 < chunkCount && i + 1 < length) {
+                    count++;
+                    boundaries[count] = i + 1;
+                    lines[count] = lineNumber;
+                }
+            }
+        }
+
+        count++;
+        boundaries[count] = length;
+        lines[count] = lineNumber;
+        return count;
+    }
+}
@@ -10,6 +10,10 @@ import java.util.Map;
 public class Scanner {
     private final String source;
     private final List<Token> tokenList = new ArrayList<>();
+    private final int end;
+    private final StringTable strings;
+    // Collects errors instead of reporting them when scanning one chunk of a larger source.
+    private final List<ParallelScanner.PendingError> pendingErrors;
     private int start = 0;
     private int current = 0;
     private int lineNumber = 1;
@@ -37,21 +41,50 @@ public class Scanner {
     }
 
     public Scanner(String source) {
+        this(source, new StringTable());
+    }
+
+    // Scanners sharing a table deduplicate literals across all of their sources.
+    public Scanner(String source, StringTable strings) {
+        this(source, 0, source.length(), 1, strings, null);
+    }
+
+    Scanner(String source, int from, int end, int lineNumber, StringTable strings,
+            List<ParallelScanner.PendingError> pendingErrors) {
         this.source = source;
+        this.strings = strings;
+        this.current = from;
+        this.end = end;
+        this.lineNumber = lineNumber;
+        this.pendingErrors = pendingErrors;
     }
 
     public List<Token> scanTokens() {
+        scanChunk();
+
+        tokenList.add(new Token(TokenType.EOF, "", null, lineNumber));
+        return tokenList;
+    }
+
+    // Scans up to the end of this scanner's range without adding an EOF token.
+    List<Token> scanChunk() {
         while (!isAtEnd()) {
             start = current;
             scanToken();
         }
-
-        tokenList.add(new Token(TokenType.EOF, "", null, lineNumber));
         return tokenList;
     }
 
     private boolean isAtEnd() {
-        return current >= source.length();
+        return current >= end;
+    }
+
+    private void error(String message) {
+        if (pendingErrors == null) {
+            Lox.error(lineNumber, message);
+        } else {
+            pendingErrors.add(new ParallelScanner.PendingError(lineNumber, message));
+        }
     }
 
     private void scanToken() {
@@ -109,7 +142,7 @@ public class Scanner {
                 } else if (isAlpha(chr)) {
                     identifier();
                 } else {
-                    Lox.error(lineNumber, "Unexpected character.");
+                    error("Unexpected character.");
                 }
                 break;
         }
@@ -157,14 +190,15 @@ public class Scanner {
         }
 
         if (isAtEnd()) {
-            Lox.error(lineNumber, "Unterminated string.");
+            error("Unterminated string.");
             return;
         }
 
         advance();      // For closing " - for a string
 
-        String stringValue = source.substring(start+1, current-1);          // Exclude double quotes "stringValue"
-        addToken(TokenType.STRING, stringValue);
+        // Shared lexeme ("stringValue") and literal (stringValue, quotes excluded).
+        StringTable.Entry entry = strings.intern(source, start, current);
+        tokenList.add(new Token(TokenType.STRING, entry.lexeme, entry.literal, lineNumber));
     }
 
     private boolean isDigit(char chr) {
@@ -182,13 +216,17 @@ public class Scanner {
             do {
                 advance();
             } while (isDigit(peek()));
+
+            addToken(TokenType.NUMBER, Double.parseDouble( source.substring(start, current) ));
+            return;
         }
 
-        addToken(TokenType.NUMBER, Double.parseDouble( source.substring(start, current) ));
+        // Whole numbers stay integral (Long) while they fit exactly in a double.
+        addToken(TokenType.NUMBER, LoxNumber.parseIntegral( source.substring(start, current) ));
     }
 
     private char peekNext() {
-        if (current + 1 >= source.length()) {
+        if (current + 1 >= end) {
             return '\0';
         }
         return source.charAt(current+1);
@@ -0,0 +1,105 @@
+package com.craftinginterpreters.lox.model;
+
+/**
+ * Deduplicates string literals for one run. Lookups hash the literal
+ * straight out of the source text, so a repeated literal costs no
+ * allocation and every occurrence shares one literal and one lexeme String.
+ * Equal literals are therefore identical, which lets equality checks
+ * short-circuit on ==.
+ */
+public class StringTable {
+    // Past this size new literals are still returned but no longer remembered.
+    private static final int MAX_ENTRIES = 1 << 20;
+
+    private final int maxEntries;
+
+    static final class Entry {
+        final String literal;
+        final String lexeme;
+        final int hash;
+        Entry next;
+
+        Entry(String literal, String lexeme, int hash, Entry next) {
+            this.literal = literal;
+            this.lexeme = lexeme;
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private Entry[] buckets = new Entry[64];
+    private int size = 0;
+
+    public StringTable() {
+        this(MAX_ENTRIES);
+    }
+
+    // A table with maxEntries = 0 remembers nothing: every literal gets fresh Strings.
+    public StringTable(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Looks up the quoted lexeme source[start, end); the literal is the text between the quotes.
+    Entry intern(String source, int start, int end) {
+        int from = start + 1;
+        int length = end - 1 - from;
+        int hash = 0;
+        for (int i = from; i < from + length; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+
+        int index = hash & (buckets.length - 1);
+        for (Entry entry = buckets[index]; entry != null; entry = entry.next) {
+            if (entry.hash == hash && entry.literal.length() == length
+                    && source.regionMatches(from, entry.literal, 0, length)) {
+                return entry;
+            }
+        }
+
+        return add(source.substring(from, from + length), source.substring(start, end), hash);
+    }
+
+    // Looks up a literal scanned with another table, such as one chunk's in ParallelScanner.
+    Entry intern(String literal, String lexeme) {
+        // Matches the hash computed from the source above, since both are String.hashCode().
+        int hash = literal.hashCode();
+        for (Entry entry = buckets[hash & (buckets.length - 1)]; entry != null; entry = entry.next) {
+            if (entry.hash == hash && entry.literal.equals(literal)) {
+                return entry;
+            }
+        }
+        return add(literal, lexeme, hash);
+    }
+
+    private Entry add(String literal, String lexeme, int hash) {
+        if (size >= maxEntries) {
+            return new Entry(literal, lexeme, hash, null);
+        }
+        int index = hash & (buckets.length - 1);
+        Entry entry = new Entry(literal, lexeme, hash, buckets[index]);
+        buckets[index] = entry;
+        if (++size > buckets.length * 3 / 4) {
+            resize();
+        }
+        return entry;
+    }
+
+    private void resize() {
+        Entry[] old = buckets;
+        buckets = new Entry[old.length * 2];
+        for (Entry head : old) {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                int index = entry.hash & (buckets.length - 1);
+                entry.next = buckets[index];
+                buckets[index] = entry;
+                entry = next;
+            }
+        }
+    }
+}
@@ -15,6 +15,6 @@ public class Token {
     }
 
     public String toString() {
-        return tokenType + " " + lexeme + " " + literal;
+        return tokenType + " " + lexeme + " " + LoxNumber.toDebugString(literal);
     }
 }
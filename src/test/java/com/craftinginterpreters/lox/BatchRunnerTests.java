@@ -0,0 +1,143 @@
+package com.craftinginterpreters.lox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRunnerTests {
+    private static final String NL = System.lineSeparator();
+
+    @TempDir
+    Path directory;
+
+    private void corpus() throws IOException {
+        Files.createDirectories(directory.resolve("sub"));
+        Files.writeString(directory.resolve("a.lox"), "1 + 2");
+        Files.writeString(directory.resolve("notes.txt"), "not a script");
+        Files.writeString(directory.resolve("sub/b.lox"), "\"b\"");
+        Files.writeString(directory.resolve("sub/c.lox"), "true");
+    }
+
+    private static List<BatchRunner.Result> run(List<Path> paths) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            return new BatchRunner(workers).run(paths);
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    @Test
+    void collectsLoxFilesBelowADirectory() throws IOException {
+        corpus();
+        assertEquals(List.of(directory.resolve("a.lox"), directory.resolve("sub/b.lox"),
+                directory.resolve("sub/c.lox")), BatchRunner.collect(directory.toString()));
+        assertEquals(List.of(directory.resolve("sub/b.lox"), directory.resolve("sub/c.lox")),
+                BatchRunner.collect(directory, "sub"));
+    }
+
+    @Test
+    void collectsRelativeGlobs() throws IOException {
+        corpus();
+        assertEquals(List.of(directory.resolve("a.lox")), BatchRunner.collect(directory, "*.lox"));
+        assertEquals(List.of(directory.resolve("sub/b.lox")), BatchRunner.collect(directory, "sub/b*.lox"));
+        assertEquals(List.of(directory.resolve("sub/b.lox"), directory.resolve("sub/c.lox")),
+                BatchRunner.collect(directory, "**/*.lox"));
+    }
+
+    @Test
+    void collectsAbsoluteGlobs() throws IOException {
+        corpus();
+        assertEquals(List.of(directory.resolve("notes.txt")),
+                BatchRunner.collect(directory + "/*.txt"));
+    }
+
+    @Test
+    void rejectsMissingTargets() throws IOException {
+        corpus();
+        NoSuchFileException missing = assertThrows(NoSuchFileException.class,
+                () -> BatchRunner.collect(directory, "corpuz"));
+        assertEquals("corpuz", missing.getFile());
+        NoSuchFileException missingBase = assertThrows(NoSuchFileException.class,
+                () -> BatchRunner.collect(directory, "nope/*.lox"));
+        assertEquals(directory.resolve("nope").toString(), missingBase.getFile());
+        // A plain file is a corpus of one.
+        assertEquals(List.of(directory.resolve("a.lox")), BatchRunner.collect(directory, "a.lox"));
+    }
+
+    @Test
+    void reportsExitStatusPerFile() throws IOException, InterruptedException {
+        Path ok = Files.writeString(directory.resolve("ok.lox"), "2 * 3");
+        Path syntax = Files.writeString(directory.resolve("syntax.lox"), "(1 +");
+        Path missing = directory.resolve("missing.lox");
+        Path runtime = Files.writeString(directory.resolve("runtime.lox"), "1 +\n\"a\"");
+
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream stray = new ByteArrayOutputStream();
+        List<BatchRunner.Result> results;
+        System.setOut(new PrintStream(stray, true, StandardCharsets.UTF_8));
+        try {
+            results = run(List.of(ok, syntax, missing, runtime));
+        } finally {
+            System.setOut(stdout);
+        }
+
+        assertEquals(0, results.get(0).exitStatus);
+        assertEquals("6" + NL, results.get(0).output);
+        assertEquals("", results.get(0).errors);
+
+        assertEquals(65, results.get(1).exitStatus);
+        assertEquals("[line 1] Error at end: Expect expression." + NL, results.get(1).errors);
+
+        assertEquals(66, results.get(2).exitStatus);
+        assertTrue(results.get(2).errors.startsWith("Cannot read file"), results.get(2).errors);
+
+        assertEquals(70, results.get(3).exitStatus);
+        assertEquals("", results.get(3).output);
+        assertEquals("Operands must be two numbers or two strings.\n[line 1]" + NL, results.get(3).errors);
+
+        // Nothing may escape the per-file results.
+        assertEquals("", stray.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void errorsStayWithTheirFile() throws IOException, InterruptedException {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // Odd files fail on a line unique to them; even files print their index.
+            String source = i % 2 == 0 ? Integer.toString(i) : "\n".repeat(i) + i + " + \"x\"";
+            paths.add(Files.writeString(directory.resolve("script" + i + ".lox"), source));
+        }
+
+        List<BatchRunner.Result> results = run(paths);
+
+        for (int i = 0; i < paths.size(); i++) {
+            BatchRunner.Result result = results.get(i);
+            assertEquals(paths.get(i), result.path);
+            if (i % 2 == 0) {
+                assertEquals(0, result.exitStatus);
+                assertEquals(i + NL, result.output);
+                assertEquals("", result.errors);
+            } else {
+                assertEquals(70, result.exitStatus);
+                assertEquals("", result.output);
+                assertTrue(result.errors.endsWith("[line " + (i + 1) + "]" + NL), result.errors);
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.ParallelScanner;
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.Token;
+import com.craftinginterpreters.lox.model.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential test: every evaluation path must give the plain Interpreter's
+ * result, or the same RuntimeError message and line, for a generated corpus.
+ * The paths include parallel scanning, the --stream pipeline and BatchRunner,
+ * and an internal crash on any path fails the test. Also prints end-to-end expressions per second per path, timed only after
+ * every path has run once. Pick a size with
+ * {@code mvn test -Dlox.conformance.size=small|medium|large} and a corpus
+ * with {@code -Dlox.conformance.seed=<n>}.
+ */
+class ConformanceTests {
+    private static final String OPERATOR_MIX = "+:4,-:3,*:3,/:2,<:1,<=:1,>:1,>=:1,==:1,!=:1";
+    private static final double ERROR_RATE = 0.03;
+    private static final int TIMED_ROUNDS = 3;
+    // BatchRunner gets one file per expression, so it only runs a prefix of larger corpora.
+    private static final int BATCH_FILES = 2_000;
+    private static final String INTERNAL_ERROR = "Internal error: ";
+    private static final Pattern LINE_SUFFIX = Pattern.compile(" \\[line \\d+\\]$");
+
+    private enum Size {
+        SMALL(2_000, 3, 4),
+        MEDIUM(50_000, 4, 5),
+        LARGE(500_000, 5, 6);
+
+        final int count;
+        final int maxDepth;
+        final int maxWidth;
+
+        Size(int count, int maxDepth, int maxWidth) {
+            this.count = count;
+            this.maxDepth = maxDepth;
+            this.maxWidth = maxWidth;
+        }
+    }
+
+    private static class EvaluationPath {
+        final String name;
+        // Outcomes for the corpus, or for its first maxExpressions, in order.
+        final Function<List<String>, List<String>> run;
+        final int maxExpressions;
+        // Stream mode scans every line on its own, so its errors always say [line 1].
+        final boolean keepsLineNumbers;
+
+        EvaluationPath(String name, Function<List<String>, List<String>> run, int maxExpressions,
+                       boolean keepsLineNumbers) {
+            this.name = name;
+            this.run = run;
+            this.maxExpressions = maxExpressions;
+            this.keepsLineNumbers = keepsLineNumbers;
+        }
+
+        static EvaluationPath perExpression(String name, Function<String, String> run) {
+            return new EvaluationPath(name, corpus -> {
+                List<String> outcomes = new ArrayList<>(corpus.size());
+                for (String source : corpus) {
+                    outcomes.add(run.apply(source));
+                }
+                return outcomes;
+            }, Integer.MAX_VALUE, true);
+        }
+    }
+
+    @TempDir
+    Path scripts;
+
+    @Test
+    void allEvaluationPathsAgree() throws IOException {
+        Size size = Size.valueOf(System.getProperty("lox.conformance.size", "small").toUpperCase());
+        long seed = Long.getLong("lox.conformance.seed", 42L);
+        List<String> corpus = new ExpressionGenerator(seed, size.maxDepth, size.maxWidth,
+                OPERATOR_MIX, ERROR_RATE).next(size.count);
+
+        Lox.useReporter(new ErrorReporter(new PrintStream(OutputStream.nullOutputStream())));
+        try {
+            List<EvaluationPath> paths = evaluationPaths(corpus);
+            // The untimed comparison pass doubles as every path's JIT warm-up.
+            List<String> reference = paths.get(0).run.apply(corpus);
+            assertCoversValuesAndErrors(reference);
+            int[] counts = new int[paths.size()];
+            for (int p = 0; p < paths.size(); p++) {
+                EvaluationPath path = paths.get(p);
+                List<String> outcomes = path.run.apply(corpus);
+                counts[p] = outcomes.size();
+                assertEquals(Math.min(corpus.size(), path.maxExpressions), outcomes.size(), path.name);
+                assertNoCrashes(path.name, corpus, outcomes);
+                for (int i = 0; i < outcomes.size(); i++) {
+                    String source = corpus.get(i);
+                    assertEquals(comparable(path, reference.get(i)), comparable(path, outcomes.get(i)),
+                            () -> path.name + " disagrees on: " + source);
+                }
+            }
+
+            // Best of several rounds, each starting with a different path, so no path
+            // is measured only before or only after the others have been compiled.
+            double[] bestSeconds = new double[paths.size()];
+            Arrays.fill(bestSeconds, Double.MAX_VALUE);
+            for (int round = 0; round < TIMED_ROUNDS; round++) {
+                for (int i = 0; i < paths.size(); i++) {
+                    int index = (round + i) % paths.size();
+                    long start = System.nanoTime();
+                    paths.get(index).run.apply(corpus);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    bestSeconds[index] = Math.min(bestSeconds[index], seconds);
+                }
+            }
+            for (int i = 0; i < paths.size(); i++) {
+                System.out.printf("%-32s %8d expressions %12.0f expressions/s%n",
+                        paths.get(i).name, counts[i], counts[i] / bestSeconds[i]);
+            }
+        } finally {
+            Lox.clearReporter();
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameCorpus() {
+        List<String> first = new ExpressionGenerator(7, 4, 4, OPERATOR_MIX, ERROR_RATE).next(100);
+        List<String> second = new ExpressionGenerator(7, 4, 4, OPERATOR_MIX, ERROR_RATE).next(100);
+        assertEquals(first, second);
+    }
+
+    private static void assertCoversValuesAndErrors(List<String> outcomes) {
+        boolean values = false;
+        boolean errors = false;
+        for (String outcome : outcomes) {
+            assertTrue(!outcome.startsWith("syntax"), "Generator produced invalid syntax.");
+            values |= outcome.startsWith("value");
+            errors |= outcome.startsWith("error");
+        }
+        assertTrue(values && errors, "Corpus should produce both values and runtime errors.");
+    }
+
+    // Every path crashing the same way is still a bug, so a crash never counts as agreement.
+    private static void assertNoCrashes(String name, List<String> corpus, List<String> outcomes) {
+        for (int i = 0; i < outcomes.size(); i++) {
+            String source = corpus.get(i);
+            String outcome = outcomes.get(i);
+            assertTrue(!outcome.startsWith("crash"), () -> name + " gave " + outcome + " on: " + source);
+        }
+    }
+
+    private static String comparable(EvaluationPath path, String outcome) {
+        return path.keepsLineNumbers ? outcome : LINE_SUFFIX.matcher(outcome).replaceFirst("");
+    }
+
+    // The reference path comes first.
+    private List<EvaluationPath> evaluationPaths(List<String> corpus) throws IOException {
+        Interpreter interpreter = new Interpreter();
+        Interpreter limited = new Interpreter(
+                new EvaluationLimits(Long.MAX_VALUE / 2, Integer.MAX_VALUE, Duration.ofMinutes(10)));
+
+        List<EvaluationPath> paths = new ArrayList<>();
+        paths.add(EvaluationPath.perExpression("interpreter",
+                source -> outcome(interpreter, parse(source))));
+        paths.add(EvaluationPath.perExpression("interpreter, inferred types",
+                source -> outcome(interpreter, annotate(parse(source)))));
+        paths.add(EvaluationPath.perExpression("interpreter, limits on",
+                source -> outcome(limited, annotate(parse(source)))));
+        paths.add(EvaluationPath.perExpression("interpreter, cached tree",
+                source -> outcome(interpreter, annotate(roundTrip(parse(source))))));
+        paths.add(new EvaluationPath("parallel scan",
+                expressions -> parallelScanOutcomes(interpreter, expressions), Integer.MAX_VALUE, true));
+        paths.add(new EvaluationPath("stream", ConformanceTests::streamOutcomes, Integer.MAX_VALUE, false));
+
+        // One file per expression; written here so the timed runs only read them.
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < Math.min(BATCH_FILES, corpus.size()); i++) {
+            files.add(Files.writeString(scripts.resolve(i + ".lox"), corpus.get(i)));
+        }
+        paths.add(new EvaluationPath("batch", expressions -> batchOutcomes(files), BATCH_FILES, true));
+        return paths;
+    }
+
+    private static Expr parse(String source) {
+        return parse(new Scanner(source).scanTokens());
+    }
+
+    private static Expr parse(List<Token> tokens) {
+        Lox.reporter().hadError = false;
+        Expr expression = new Parser(tokens).parse();
+        return Lox.reporter().hadError ? null : expression;
+    }
+
+    private static Expr annotate(Expr expression) {
+        if (expression != null) {
+            TypeInference.annotate(expression);
+        }
+        return expression;
+    }
+
+    private static Expr roundTrip(Expr expression) {
+        if (expression == null) return null;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ExprCodec.write(expression, out);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+        return ExprCodec.read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    private static String outcome(Interpreter interpreter, Expr expression) {
+        if (expression == null) return "syntax error";
+        try {
+            return "value " + interpreter.stringify(interpreter.execute(expression));
+        } catch (RuntimeError error) {
+            return "error " + error.getMessage() + " [line " + error.token.lineNumber + "]";
+        } catch (RuntimeException | StackOverflowError error) {
+            return "crash " + error.getClass().getSimpleName();
+        }
+    }
+
+    // Scans the whole corpus as one source, one expression per line range, then evaluates each range.
+    private static List<String> parallelScanOutcomes(Interpreter interpreter, List<String> corpus) {
+        List<Token> tokens;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            tokens = new ParallelScanner(String.join("\n", corpus), executor, 4).scanTokens();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<String> outcomes = new ArrayList<>(corpus.size());
+        int next = 0;
+        int firstLine = 1;
+        for (String source : corpus) {
+            int lastLine = firstLine + (int) source.chars().filter(c -> c == '\n').count();
+            List<Token> expression = new ArrayList<>();
+            for (; tokens.get(next).lineNumber <= lastLine && tokens.get(next).tokenType != TokenType.EOF; next++) {
+                Token token = tokens.get(next);
+                expression.add(new Token(token.tokenType, token.lexeme, token.literal,
+                        token.lineNumber - firstLine + 1));
+            }
+            expression.add(new Token(TokenType.EOF, "", null, lastLine - firstLine + 1));
+            outcomes.add(outcome(interpreter, annotate(parse(expression))));
+            firstLine = lastLine + 1;
+        }
+        return outcomes;
+    }
+
+    private static List<String> streamOutcomes(List<String> corpus) {
+        StringBuilder input = new StringBuilder();
+        for (String source : corpus) {
+            input.append(source.replace('\n', ' ')).append('\n');
+        }
+        StringWriter output = new StringWriter();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        try {
+            new StreamRunner(new BufferedReader(new StringReader(input.toString())), output,
+                    new PrintStream(errors, true, StandardCharsets.UTF_8)).run();
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(error);
+        }
+
+        // Marked lines take their error, in order, from the error stream.
+        Iterator<String> messages = errors.toString(StandardCharsets.UTF_8).lines().iterator();
+        List<String> outcomes = new ArrayList<>(corpus.size());
+        for (String line : output.toString().split(System.lineSeparator())) {
+            outcomes.add(line.equals(StreamRunner.ERROR_MARKER) ? reported(messages) : "value " + line);
+        }
+        return outcomes;
+    }
+
+    private static List<String> batchOutcomes(List<Path> files) {
+        List<BatchRunner.Result> results;
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            results = new BatchRunner(workers).run(files);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(error);
+        } finally {
+            workers.shutdown();
+        }
+
+        List<String> outcomes = new ArrayList<>(results.size());
+        for (BatchRunner.Result result : results) {
+            if (result.exitStatus == 0) {
+                outcomes.add("value " + result.output.strip());
+            } else if (result.exitStatus == 65) {
+                outcomes.add("syntax error");
+            } else {
+                outcomes.add(reported(result.errors.lines().iterator()));
+            }
+        }
+        return outcomes;
+    }
+
+    // Reads one reported runtime error ("message" then "[line n]") or internal error as an outcome.
+    private static String reported(Iterator<String> messages) {
+        String message = messages.next();
+        if (message.startsWith(INTERNAL_ERROR)) {
+            String exception = message.substring(INTERNAL_ERROR.length()).split(":")[0];
+            return "crash " + exception.substring(exception.lastIndexOf('.') + 1);
+        }
+        return "error " + message + " " + messages.next();
+    }
+}
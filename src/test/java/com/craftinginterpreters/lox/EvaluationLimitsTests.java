@@ -0,0 +1,91 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.Scanner;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluationLimitsTests {
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source).scanTokens()).parse();
+    }
+
+    private static Interpreter interpreter(EvaluationLimits limits) {
+        return new Interpreter(limits, new StringWriter());
+    }
+
+    @Test
+    void stepLimitFiresAtTheOperatorThatExceedsIt() {
+        // Left-deep tree: the "+" on line 3 is visited first, the one on line 1 last.
+        Expr expression = parse("1 +\n2 +\n3 +\n4");
+        Interpreter interpreter = interpreter(new EvaluationLimits(2, Integer.MAX_VALUE, null));
+
+        LimitExceededError error = assertThrows(LimitExceededError.class,
+                () -> interpreter.execute(expression));
+        assertEquals(LimitExceededError.Limit.STEPS, error.limit);
+        assertEquals(1, error.token.lineNumber);
+        assertEquals("Evaluation exceeded 2 steps.", error.getMessage());
+    }
+
+    @Test
+    void stepLimitAllowsExactlyTheBudget() {
+        Interpreter interpreter = interpreter(new EvaluationLimits(3, Integer.MAX_VALUE, null));
+        assertEquals(10L, interpreter.execute(parse("1 + 2 + 3 + 4")));
+        // Every evaluation starts with a fresh budget.
+        assertEquals(10L, interpreter.execute(parse("1 + 2 + 3 + 4")));
+    }
+
+    @Test
+    void stringLengthLimitFiresOnConcatenation() {
+        Interpreter interpreter = interpreter(new EvaluationLimits(Long.MAX_VALUE, 4, null));
+        assertEquals("abcd", interpreter.execute(parse("\"ab\" + \"cd\"")));
+
+        LimitExceededError error = assertThrows(LimitExceededError.class,
+                () -> interpreter.execute(parse("\"ab\"\n+ \"cde\"")));
+        assertEquals(LimitExceededError.Limit.STRING_LENGTH, error.limit);
+        assertEquals(2, error.token.lineNumber);
+    }
+
+    @Test
+    void deadlineFiresOnceTheClockIsChecked() {
+        // More than 1024 steps, so the clock is read at least once.
+        Expr expression = parse("1" + " + 1".repeat(3_000));
+        Interpreter interpreter = interpreter(
+                new EvaluationLimits(Long.MAX_VALUE, Integer.MAX_VALUE, Duration.ofNanos(1)));
+
+        LimitExceededError error = assertThrows(LimitExceededError.class,
+                () -> interpreter.execute(expression));
+        assertEquals(LimitExceededError.Limit.DEADLINE, error.limit);
+        assertEquals(1, error.token.lineNumber);
+    }
+
+    @Test
+    void interpretReportsLimitsAsRuntimeErrors() {
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        ErrorReporter reporter = new ErrorReporter(new PrintStream(errors, true, StandardCharsets.UTF_8));
+        StringWriter output = new StringWriter();
+        Interpreter interpreter = new Interpreter(new EvaluationLimits(1, Integer.MAX_VALUE, null), output);
+
+        Lox.useReporter(reporter);
+        try {
+            interpreter.interpret(parse("1 +\n2 + 3"));
+        } finally {
+            Lox.clearReporter();
+        }
+
+        assertTrue(reporter.hadRuntimeError);
+        assertEquals("", output.toString());
+        assertEquals("Evaluation exceeded 1 steps.\n[line 1]"
+                + System.lineSeparator(), errors.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package com.craftinginterpreters.lox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of random, syntactically valid Lox expressions.
+ * The same settings and seed always produce the same sequence.
+ */
+class ExpressionGenerator {
+    private static final String[] NUMBERS = {"0", "1", "2", "3", "7", "10", "255", "9999999", "10000000", "0.5", "2.25", "0.1"};
+    private static final String[] STRINGS = {"\"\"", "\"a\"", "\"lox\"", "\"hello world\""};
+    private static final String[] MISFITS = {"nil", "true", "false", "\"oops\"", "1"};
+
+    private final Random random;
+    private final int maxDepth;
+    private final int maxWidth;
+    private final String[] operators;
+    private final double errorRate;
+
+    /**
+     * @param maxDepth    how deeply groupings and unary operators may nest
+     * @param maxWidth    how many operands one operator chain may have
+     * @param operatorMix weighted binary operators such as "+:4,-:2,*:2,/:1,<:1,==:1"
+     * @param errorRate   chance that an operand is replaced by a value of another type
+     */
+    ExpressionGenerator(long seed, int maxDepth, int maxWidth, String operatorMix, double errorRate) {
+        this.random = new Random(seed);
+        this.maxDepth = maxDepth;
+        this.maxWidth = maxWidth;
+        this.operators = parseMix(operatorMix);
+        this.errorRate = errorRate;
+    }
+
+    private static String[] parseMix(String operatorMix) {
+        List<String> weighted = new ArrayList<>();
+        for (String entry : operatorMix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                weighted.add(parts[0]);
+            }
+        }
+        return weighted.toArray(new String[0]);
+    }
+
+    String next() {
+        StringBuilder out = new StringBuilder();
+        chain(out, maxDepth, random.nextInt(4) == 0);
+        return out.toString();
+    }
+
+    List<String> next(int count) {
+        List<String> expressions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expressions.add(next());
+        }
+        return expressions;
+    }
+
+    // An operator chain; string chains only use "+" so most of them stay well typed.
+    private void chain(StringBuilder out, int depth, boolean strings) {
+        int width = 1 + random.nextInt(maxWidth);
+        operand(out, depth, strings);
+        for (int i = 1; i < width; i++) {
+            // Occasional line breaks give runtime errors different line numbers.
+            out.append(random.nextInt(8) == 0 ? "\n" : " ");
+            out.append(strings ? "+" : pick(operators)).append(' ');
+            operand(out, depth, strings);
+        }
+    }
+
+    private void operand(StringBuilder out, int depth, boolean strings) {
+        if (random.nextDouble() < errorRate) {
+            out.append(pick(MISFITS));
+            return;
+        }
+        int choice = depth <= 0 ? 0 : random.nextInt(6);
+        switch (choice) {
+            case 0:
+            case 1:
+            case 2:
+                out.append(strings ? pick(STRINGS) : pick(NUMBERS));
+                break;
+            case 3:
+                out.append('(');
+                chain(out, depth - 1, strings);
+                out.append(')');
+                break;
+            case 4:
+                if (strings) {
+                    out.append(pick(STRINGS));
+                } else {
+                    out.append('-');
+                    operand(out, depth - 1, false);
+                }
+                break;
+            default:
+                out.append("!(");
+                chain(out, depth - 1, random.nextBoolean());
+                out.append(')');
+                break;
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,318 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.ParallelScanner;
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.StringTable;
+import com.craftinginterpreters.lox.model.Token;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plain main-method micro benchmarks. Not picked up by surefire; run with
+ * {@code java -cp target/classes:target/test-classes com.craftinginterpreters.lox.LoxBenchmark}.
+ */
+public class LoxBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    // Runs every benchmark, or only the ones named on the command line.
+    public static void main(String[] args) throws IOException {
+        List<String> selected = Arrays.asList(args);
+        if (selected.isEmpty() || selected.contains("limits")) evaluationLimits();
+        if (selected.isEmpty() || selected.contains("cache")) scriptCache();
+        if (selected.isEmpty() || selected.contains("integers")) integerArithmetic();
+        if (selected.isEmpty() || selected.contains("format")) resultFormatting();
+        if (selected.isEmpty() || selected.contains("scan")) parallelScanning();
+        if (selected.isEmpty() || selected.contains("types")) typeInference();
+        if (selected.isEmpty() || selected.contains("strings")) stringInterning();
+        if (selected.isEmpty() || selected.contains("batch")) batchFiles();
+        if (selected.isEmpty() || selected.contains("parse")) parsing();
+    }
+
+    // Compares an unlimited interpreter against one with every limit switched on.
+    static void evaluationLimits() {
+        Expr expr = parse(arithmeticChain(2_000));
+        Interpreter unlimited = new Interpreter();
+        Interpreter limited = new Interpreter(
+                new EvaluationLimits(1_000_000, 1 << 20, Duration.ofSeconds(10)));
+
+        report("evaluate, no limits", time(() -> unlimited.execute(expr), 2_000));
+        report("evaluate, all limits", time(() -> limited.execute(expr), 2_000));
+    }
+
+    // Startup cost of a large script: scan + parse versus loading the cached tree.
+    static void scriptCache() throws IOException {
+        byte[] source = balancedSum(15).getBytes(StandardCharsets.UTF_8);
+        Path directory = Files.createTempDirectory("lox-cache-bench");
+        ScriptCache cache = new ScriptCache(directory);
+        byte[] sourceHash = ScriptCache.hash(source);
+        cache.store(sourceHash, parse(new String(source, StandardCharsets.UTF_8)));
+
+        report("startup, scan + parse", time(
+                () -> parse(new String(source, StandardCharsets.UTF_8)), 20));
+        report("startup, hash + cache load", time(
+                () -> cache.load(ScriptCache.hash(source)), 20));
+
+        try (var entries = Files.list(directory)) {
+            entries.forEach(entry -> {
+                try {
+                    Files.delete(entry);
+                } catch (IOException error) {
+                    throw new UncheckedIOException(error);
+                }
+            });
+        }
+        Files.delete(directory);
+    }
+
+    // Integral operands take the Long fast path; the ".5" variant stays on doubles.
+    static void integerArithmetic() {
+        String chain = "1" + " + 3 - 2 * 1".repeat(700);
+        Expr integral = parse(chain);
+        Expr fractional = parse(chain.replace(" 3", " 3.5"));
+        Expr comparisons = parse(balancedSum(10) + " < " + balancedSum(10) + " + 1");
+        Interpreter interpreter = new Interpreter();
+
+        report("integer + and *", time(() -> interpreter.execute(integral), 2_000));
+        report("mixed integer / double + and *", time(() -> interpreter.execute(fractional), 2_000));
+        report("integer sums and comparison", time(() -> interpreter.execute(comparisons), 2_000));
+    }
+
+    // The pre-formatter stringify versus appending into a reused buffer.
+    static void resultFormatting() {
+        Object[] values = new Object[1_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? (Object) (double) i : i % 3 == 1 ? (Object) (i / 7.0) : (Object) (long) i;
+        }
+        StringBuilder buffer = new StringBuilder();
+        Runnable legacy = () -> {
+            for (Object value : values) {
+                String text = Double.toString(((Number) value).doubleValue());
+                if (text.endsWith(".0")) {
+                    text = text.substring(0, text.length() - 2);
+                }
+                buffer.setLength(0);
+                buffer.append(text);
+            }
+        };
+        Runnable formatter = () -> {
+            for (Object value : values) {
+                buffer.setLength(0);
+                ValueFormatter.append(buffer, value);
+            }
+        };
+
+        report("format 1000 numbers, toString + substring", time(legacy, 2_000));
+        reportAllocation("format 1000 numbers, toString + substring", allocatedBytes(legacy));
+        report("format 1000 numbers, ValueFormatter", time(formatter, 2_000));
+        reportAllocation("format 1000 numbers, ValueFormatter", allocatedBytes(formatter));
+    }
+
+    // Sequential scanTokens() against chunked scanning at growing thread counts.
+    static void parallelScanning() {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 32 * 1024 * 1024) {
+            builder.append("(1 + 2.5) * 3 == \"multi\nline\" // comment \"quoted\"\n")
+                    .append("!(value >= 10) != \"// not a comment\"\n");
+        }
+        String source = builder.toString();
+
+        report("scan 32 MB, sequential", time(() -> new Scanner(source).scanTokens(), 1));
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            int chunks = threads;
+            report("scan 32 MB, " + threads + " thread(s)",
+                    time(() -> new ParallelScanner(source, executor, chunks).scanTokens(), 1));
+            executor.shutdown();
+        }
+    }
+
+    // The same trees evaluated with and without TypeInference annotations.
+    static void typeInference() {
+        String numbers = "1.5" + " + 3.25 - 2.5 * 0.5 / 4.0".repeat(500);
+        String strings = "\"a\"" + " + \"bc\"".repeat(500);
+        Expr plainNumbers = parse(numbers);
+        Expr typedNumbers = parse(numbers);
+        TypeInference.annotate(typedNumbers);
+        Expr plainStrings = parse(strings);
+        Expr typedStrings = parse(strings);
+        TypeInference.annotate(typedStrings);
+        Interpreter interpreter = new Interpreter();
+
+        report("double arithmetic, checked", time(() -> interpreter.execute(plainNumbers), 2_000));
+        report("double arithmetic, proven types", time(() -> interpreter.execute(typedNumbers), 2_000));
+        report("concatenation, checked", time(() -> interpreter.execute(plainStrings), 500));
+        report("concatenation, proven types", time(() -> interpreter.execute(typedStrings), 500));
+    }
+
+    // Scans a string-heavy source with a table that remembers nothing (a substring
+    // per literal, as before interning) and with the default table, measuring the
+    // bytes each scan allocates and the heap its tokens keep alive.
+    static void stringInterning() {
+        String[] constants = {"\"status\"", "\"ok\"", "\"error: not found\"", "\"user-id\""};
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            builder.append(constants[i % constants.length]).append(" == ")
+                    .append(constants[(i / 3) % constants.length]).append('\n');
+        }
+        String source = builder.toString();
+
+        for (int maxEntries : new int[] {0, 1 << 20}) {
+            String name = maxEntries == 0 ? "scan 400k literals, substring each" : "scan 400k literals, interned";
+            reportAllocation(name, allocatedBytes(() -> new Scanner(source, new StringTable(maxEntries)).scanTokens()));
+
+            long before = usedHeap();
+            List<Token> tokens = new Scanner(source, new StringTable(maxEntries)).scanTokens();
+            reportRetained(name, usedHeap() - before);
+            Reference.reachabilityFence(tokens);
+        }
+    }
+
+    // Wall time for a corpus of small scripts: one JVM for all of them versus one JVM per file.
+    static void batchFiles() throws IOException {
+        int fileCount = 200;
+        Path directory = Files.createTempDirectory("lox-batch-bench");
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            Path path = directory.resolve("script" + i + ".lox");
+            Files.writeString(path, i % 10 == 0 ? "\"a\" - " + i : balancedSum(6) + " * " + i);
+            paths.add(path);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        try {
+            new BatchRunner(workers).run(paths);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            workers.shutdown();
+        }
+        reportTotal("corpus of " + fileCount + ", one JVM (batch)", System.nanoTime() - start);
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        start = System.nanoTime();
+        for (Path path : paths) {
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    Lox.class.getName(), path.toString())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                process.waitFor();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        reportTotal("corpus of " + fileCount + ", one JVM per file", System.nanoTime() - start);
+
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+        Files.delete(directory);
+    }
+
+    // Pratt/precedence-climbing Parser against the old recursive descent, on the same tokens.
+    static void parsing() {
+        List<Token> tokens = new Scanner(balancedSum(8) + " * -2 == " + arithmeticChain(1_000)
+                + " / (3 - 1) >= !true").scanTokens();
+        AstPrinter printer = new AstPrinter();
+        if (!printer.print(new Parser(tokens).parse())
+                .equals(printer.print(new RecursiveDescentParser(tokens).parse()))) {
+            throw new AssertionError("Parsers built different trees.");
+        }
+
+        Runnable recursiveDescent = () -> new RecursiveDescentParser(tokens).parse();
+        Runnable precedenceClimbing = () -> new Parser(tokens).parse();
+        report("parse " + tokens.size() + " tokens, recursive descent", time(recursiveDescent, 2_000));
+        reportAllocation("parse, recursive descent", allocatedBytes(recursiveDescent));
+        report("parse " + tokens.size() + " tokens, precedence table", time(precedenceClimbing, 2_000));
+        reportAllocation("parse, precedence table", allocatedBytes(precedenceClimbing));
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // A fully parenthesized tree with 2^depth leaves, shallow enough to recurse over.
+    static String balancedSum(int depth) {
+        if (depth == 0) return "1";
+        String side = balancedSum(depth - 1);
+        return "(" + side + " + " + side + ")";
+    }
+
+    static String arithmeticChain(int operands) {
+        StringBuilder builder = new StringBuilder("1");
+        for (int i = 1; i < operands; i++) {
+            builder.append(i % 2 == 0 ? " + " : " * ").append(i % 7);
+        }
+        return builder.toString();
+    }
+
+    static Expr parse(String source) {
+        return new Parser(new Scanner(source).scanTokens()).parse();
+    }
+
+    // Returns the best nanoseconds per iteration over the measured rounds.
+    static double time(Runnable body, int iterations) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                body.run();
+            }
+            double perIteration = (System.nanoTime() - start) / (double) iterations;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, perIteration);
+            }
+        }
+        return best;
+    }
+
+    // Bytes allocated by the current thread during one run of the body.
+    static long allocatedBytes(Runnable body) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        body.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    static void report(String name, double nanos) {
+        System.out.printf("%-44s %12.1f ns/op%n", name, nanos);
+    }
+
+    // For one run over a whole workload rather than a per-operation figure.
+    static void reportTotal(String name, long nanos) {
+        System.out.printf("%-44s %12.1f ms total%n", name, nanos / 1e6);
+    }
+
+    static void reportRetained(String name, long bytes) {
+        System.out.printf("%-44s %12d bytes retained%n", name, bytes);
+    }
+
+    static void reportAllocation(String name, long bytes) {
+        System.out.printf("%-44s %12d bytes/op%n", name, bytes);
+    }
+}
@@ -0,0 +1,96 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.LoxNumber;
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Long fast path must give exactly what double-only arithmetic gives.
+ * Each case compares against the plain double computation.
+ */
+class LoxNumberTests {
+    private static final long MAX = LoxNumber.MAX_EXACT_INTEGER;
+
+    // Same value and same type rules: Long only where the double result is integral and exact.
+    private static void assertSameAsDouble(double expected, Object actual) {
+        assertEquals(Double.doubleToRawLongBits(expected),
+                Double.doubleToRawLongBits(LoxNumber.toDouble(actual)), "value " + actual);
+    }
+
+    @Test
+    void zeroTimesNegativeIsNegativeZero() {
+        Object result = LoxNumber.multiply(0, -5);
+        assertInstanceOf(Double.class, result);
+        assertSameAsDouble(0.0 * -5.0, result);
+        assertSameAsDouble(-3.0 * 0.0, LoxNumber.multiply(-3, 0));
+        assertInstanceOf(Long.class, LoxNumber.multiply(0, 5));
+    }
+
+    @Test
+    void negatingZeroIsNegativeZero() {
+        Object result = LoxNumber.negate(0);
+        assertInstanceOf(Double.class, result);
+        assertSameAsDouble(-0.0, result);
+        assertEquals(-7L, LoxNumber.negate(7));
+    }
+
+    @Test
+    void resultsBeyondTwoToThe53FallBackToDouble() {
+        assertEquals(MAX, LoxNumber.add(MAX - 1, 1));
+        Object past = LoxNumber.add(MAX, 1);
+        assertInstanceOf(Double.class, past);
+        assertSameAsDouble((double) MAX + 1.0, past);
+
+        assertEquals(-MAX, LoxNumber.subtract(-MAX + 1, 1));
+        assertSameAsDouble((double) -MAX - 2.0, LoxNumber.subtract(-MAX, 2));
+
+        Object product = LoxNumber.multiply(MAX, MAX);
+        assertInstanceOf(Double.class, product);
+        assertSameAsDouble((double) MAX * (double) MAX, product);
+        assertSameAsDouble(3037000500.0 * 3037000500.0, LoxNumber.multiply(3037000500L, 3037000500L));
+        assertSameAsDouble(-(double) MAX * 3.0, LoxNumber.multiply(-MAX, 3));
+    }
+
+    @Test
+    void integralLiteralsAreLongOnlyWhenExact() {
+        assertEquals(9007199254740992L, LoxNumber.parseIntegral("9007199254740992"));
+        // 16 digits but above 2^53, so the double rounding must be kept.
+        assertEquals(Double.parseDouble("9007199254740993"), LoxNumber.parseIntegral("9007199254740993"));
+        // 17 digits always go through parseDouble.
+        assertEquals(Double.parseDouble("12345678901234567"), LoxNumber.parseIntegral("12345678901234567"));
+        assertEquals(7L, LoxNumber.parseIntegral("007"));
+
+        Token literal = new Scanner("99999999999999999999").scanTokens().get(0);
+        assertEquals(1e20, literal.literal);
+        assertEquals(1.5, new Scanner("1.5").scanTokens().get(0).literal);
+        assertEquals(1.0, new Scanner("1.0").scanTokens().get(0).literal);
+    }
+
+    @Test
+    void equalityFollowsDoubleEquals() {
+        assertTrue(LoxNumber.equal(2L, 2.0));
+        assertFalse(LoxNumber.equal(0L, -0.0));
+        assertTrue(LoxNumber.equal(Double.NaN, Double.NaN));
+        assertTrue(LoxNumber.equal(MAX, (double) MAX));
+    }
+
+    @Test
+    void printBoundaryMatchesDoubleToString() {
+        Interpreter interpreter = new Interpreter(EvaluationLimits.UNLIMITED, new StringWriter());
+        assertEquals("9999999", interpreter.stringify(9999999L));
+        assertEquals("1.0E7", interpreter.stringify(10000000L));
+        assertEquals("-9999999", interpreter.stringify(-9999999L));
+        assertEquals("-1.0E7", interpreter.stringify(-10000000L));
+        assertEquals("9.007199254740992E15", interpreter.stringify(MAX));
+        assertEquals("-0", interpreter.stringify(LoxNumber.negate(0)));
+        assertEquals("1.0", LoxNumber.toDebugString(1L));
+    }
+}
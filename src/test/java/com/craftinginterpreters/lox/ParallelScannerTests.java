@@ -0,0 +1,117 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.ParallelScanner;
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Chunked scanning must give exactly the tokens and errors of Scanner.scanTokens(). */
+class ParallelScannerTests {
+    private static final String[] PIECES = {
+            "1 + 2.5", " \"string // not a comment\" ", "// comment with a \"quote\n",
+            "\"multi\nline\nstring\"", "\n", "\n", "(a == b) != !c\n", "@", "x/y", "/",
+            "\"\"", "12.", "\t", ";", "#", "// \"unbalanced\n"
+    };
+
+    // At least four 64 KB chunks' worth of tricky input.
+    private static String source(long seed, String tail) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 300_000) {
+            builder.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return builder.append(tail).toString();
+    }
+
+    private static class Scan {
+        final List<Token> tokens;
+        final String errors;
+
+        Scan(List<Token> tokens, String errors) {
+            this.tokens = tokens;
+            this.errors = errors;
+        }
+    }
+
+    private static Scan scan(Supplier<List<Token>> scanner) {
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Lox.useReporter(new ErrorReporter(new PrintStream(errors, true, StandardCharsets.UTF_8)));
+        try {
+            List<Token> tokens = scanner.get();
+            return new Scan(tokens, errors.toString(StandardCharsets.UTF_8));
+        } finally {
+            Lox.clearReporter();
+        }
+    }
+
+    private static void assertSameAsSequential(String source) {
+        Scan sequential = scan(() -> new Scanner(source).scanTokens());
+        assertTrue(!sequential.errors.isEmpty(), "Input should produce scan errors.");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int chunks = 2; chunks <= 4; chunks++) {
+                int chunkCount = chunks;
+                Scan parallel = scan(() -> new ParallelScanner(source, executor, chunkCount).scanTokens());
+
+                assertEquals(sequential.tokens.size(), parallel.tokens.size(), "token count, " + chunks + " chunks");
+                for (int i = 0; i < sequential.tokens.size(); i++) {
+                    Token expected = sequential.tokens.get(i);
+                    Token actual = parallel.tokens.get(i);
+                    String where = "token " + i + ", " + chunks + " chunks";
+                    assertEquals(expected.tokenType, actual.tokenType, where);
+                    assertEquals(expected.lexeme, actual.lexeme, where);
+                    assertEquals(expected.literal, actual.literal, where);
+                    assertEquals(expected.lineNumber, actual.lineNumber, where);
+                }
+                assertEquals(sequential.errors, parallel.errors, "errors, " + chunks + " chunks");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void matchesSequentialScan() {
+        assertSameAsSequential(source(1, ""));
+    }
+
+    @Test
+    void matchesSequentialScanWithUnterminatedStringAtEnd() {
+        assertSameAsSequential(source(2, "\"unterminated\nstring // to the end"));
+    }
+
+    @Test
+    void matchesSequentialScanEndingInComment() {
+        assertSameAsSequential(source(3, "// trailing \"comment"));
+    }
+
+    @Test
+    void equalLiteralsAreSharedAcrossChunks() {
+        String source = "\"status\" == \"ok\"\n".repeat(20_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Token> tokens = new ParallelScanner(source, executor, 4).scanTokens();
+            Token first = tokens.get(0);
+            Token last = tokens.get(tokens.size() - 4);
+            assertEquals(20_000, last.lineNumber);
+            assertSame(first.literal, last.literal);
+            assertSame(first.lexeme, last.lexeme);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
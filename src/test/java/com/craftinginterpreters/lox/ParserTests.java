@@ -0,0 +1,107 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The precedence-climbing Parser must build the trees and report the errors RecursiveDescentParser does. */
+class ParserTests {
+    private static final String OPERATOR_MIX = "+:3,-:3,*:3,/:2,<:1,<=:1,>:1,>=:1,==:2,!=:2";
+    private static final String MUTATIONS = "()+-*/!<>=\"1";
+    private static final String[] MALFORMED = {
+            "", "(", ")", "()", "1 +", "(1", "((1)", "!", "- -", "1 + * 2", "== 1", "1 ==",
+            "1 < < 2", "!(1", "\"unterminated", "@", "(1 + 2\n* 3", "(".repeat(200_000) + "1"
+    };
+    // Both parsers stop after one expression and ignore whatever follows it.
+    private static final String[] TRAILING = {"1)", "1 2", "nil nil", "(1) (2)"};
+
+    private static String parse(List<Token> tokens, Function<List<Token>, Expr> parser) {
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Lox.useReporter(new ErrorReporter(new PrintStream(errors, true, StandardCharsets.UTF_8)));
+        try {
+            Expr expression = parser.apply(tokens);
+            String tree = expression == null ? "no tree" : new AstPrinter().print(expression);
+            return tree + System.lineSeparator() + errors.toString(StandardCharsets.UTF_8);
+        } finally {
+            Lox.clearReporter();
+        }
+    }
+
+    private static List<Token> scan(String source) {
+        // Scan errors are not the parsers' business; both get the same tokens.
+        Lox.useReporter(new ErrorReporter(new PrintStream(OutputStream.nullOutputStream())));
+        try {
+            return new Scanner(source).scanTokens();
+        } finally {
+            Lox.clearReporter();
+        }
+    }
+
+    // Returns whether the parsers reported an error.
+    private static boolean assertSameAsRecursiveDescent(String source) {
+        List<Token> tokens = scan(source);
+        String expected = parse(tokens, list -> new RecursiveDescentParser(list).parse());
+        String actual = parse(tokens, list -> new Parser(list).parse());
+        assertEquals(expected, actual, () -> "parsing: " + source);
+        return expected.contains("Error");
+    }
+
+    @Test
+    void matchesRecursiveDescentOnGeneratedExpressions() {
+        List<String> corpus = new ExpressionGenerator(11, 4, 5, OPERATOR_MIX, 0.05).next(20_000);
+        for (String source : corpus) {
+            assertTrue(!assertSameAsRecursiveDescent(source), () -> "generated invalid syntax: " + source);
+        }
+    }
+
+    @Test
+    void matchesRecursiveDescentOnMalformedInput() {
+        for (String source : MALFORMED) {
+            assertTrue(assertSameAsRecursiveDescent(source), () -> "expected a syntax error for: " + source);
+        }
+        for (String source : TRAILING) {
+            assertTrue(!assertSameAsRecursiveDescent(source), () -> "expected no syntax error for: " + source);
+        }
+    }
+
+    @Test
+    void matchesRecursiveDescentOnMutatedExpressions() {
+        Random random = new Random(5);
+        List<String> mutated = new ArrayList<>();
+        for (String source : new ExpressionGenerator(13, 3, 4, OPERATOR_MIX, 0.05).next(20_000)) {
+            StringBuilder builder = new StringBuilder(source);
+            int position = random.nextInt(builder.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    builder.setLength(position);
+                    break;
+                case 1:
+                    if (position < builder.length()) builder.deleteCharAt(position);
+                    break;
+                default:
+                    builder.insert(position, MUTATIONS.charAt(random.nextInt(MUTATIONS.length())));
+                    break;
+            }
+            mutated.add(builder.toString());
+        }
+
+        int errors = 0;
+        for (String source : mutated) {
+            if (assertSameAsRecursiveDescent(source)) errors++;
+        }
+        assertTrue(errors > mutated.size() / 4, "mutations should break a good share of the corpus");
+    }
+}
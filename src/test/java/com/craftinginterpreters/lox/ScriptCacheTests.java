@@ -0,0 +1,142 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.Scanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScriptCacheTests {
+    // Entry layout: magic (4), format version (4), source hash (32), then the tree.
+    private static final int VERSION_OFFSET = 4;
+    private static final int TREE_OFFSET = 40;
+
+    @TempDir
+    Path directory;
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source).scanTokens()).parse();
+    }
+
+    private static byte[] hash(String source) {
+        return ScriptCache.hash(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path onlyEntry() throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            List<Path> all = entries.collect(Collectors.toList());
+            assertEquals(1, all.size());
+            return all.get(0);
+        }
+    }
+
+    @Test
+    void storedTreeLoadsBack() throws IOException {
+        String source = "-(1 + 2.5) * \"a\" == !nil != (true >= false)";
+        ScriptCache cache = new ScriptCache(directory);
+        cache.store(hash(source), parse(source));
+
+        Expr loaded = cache.load(hash(source));
+        assertNotNull(loaded);
+        AstPrinter printer = new AstPrinter();
+        assertEquals(printer.print(parse(source)), printer.print(loaded));
+    }
+
+    @Test
+    void changedSourceIsAMiss() throws IOException {
+        ScriptCache cache = new ScriptCache(directory);
+        cache.store(hash("1 + 2"), parse("1 + 2"));
+
+        assertNull(cache.load(hash("1 + 3")));
+    }
+
+    @Test
+    void otherFormatVersionOrMagicIsAMiss() throws IOException {
+        ScriptCache cache = new ScriptCache(directory);
+        cache.store(hash("1 + 2"), parse("1 + 2"));
+        Path entry = onlyEntry();
+        byte[] original = Files.readAllBytes(entry);
+
+        byte[] otherVersion = original.clone();
+        ByteBuffer.wrap(otherVersion).putInt(VERSION_OFFSET, ExprCodec.FORMAT_VERSION + 1);
+        Files.write(entry, otherVersion);
+        assertNull(cache.load(hash("1 + 2")));
+
+        byte[] otherMagic = original.clone();
+        otherMagic[0] ^= 0x20;
+        Files.write(entry, otherMagic);
+        assertNull(cache.load(hash("1 + 2")));
+    }
+
+    @Test
+    void truncatedEntriesAreMisses() throws IOException {
+        ScriptCache cache = new ScriptCache(directory);
+        String source = "(\"abc\" + \"def\") == 12.5";
+        cache.store(hash(source), parse(source));
+        Path entry = onlyEntry();
+        byte[] original = Files.readAllBytes(entry);
+
+        for (int length = 0; length < original.length; length++) {
+            Files.write(entry, Arrays.copyOf(original, length));
+            assertNull(cache.load(hash(source)), "Truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void badStringLengthsAreMisses() throws IOException {
+        ScriptCache cache = new ScriptCache(directory);
+        // A lone string literal: node tag, value tag, then the string length.
+        cache.store(hash("\"abc\""), parse("\"abc\""));
+        Path entry = onlyEntry();
+        byte[] original = Files.readAllBytes(entry);
+
+        for (int length : new int[] {-5, Integer.MAX_VALUE, 4}) {
+            byte[] corrupt = original.clone();
+            ByteBuffer.wrap(corrupt).putInt(TREE_OFFSET + 2, length);
+            Files.write(entry, corrupt);
+            assertNull(cache.load(hash("\"abc\"")), "String length " + length);
+        }
+    }
+
+    @Test
+    void corruptTreeBytesNeverThrow() throws IOException {
+        ScriptCache cache = new ScriptCache(directory);
+        String source = "-(1 + 2.5) * \"a\" == !nil";
+        cache.store(hash(source), parse(source));
+        Path entry = onlyEntry();
+        byte[] original = Files.readAllBytes(entry);
+
+        for (int position = TREE_OFFSET; position < original.length; position++) {
+            for (int value : new int[] {0x00, 0x7F, 0x80, 0xFF}) {
+                byte[] corrupt = original.clone();
+                corrupt[position] = (byte) value;
+                Files.write(entry, corrupt);
+                // Any result is acceptable as long as decoding does not blow up.
+                cache.load(hash(source));
+            }
+        }
+    }
+
+    @Test
+    void unusableDirectoryFailsToStore() throws IOException {
+        Path notADirectory = Files.writeString(directory.resolve("not-a-directory"), "");
+        ScriptCache cache = new ScriptCache(notADirectory);
+
+        assertThrows(IOException.class, () -> cache.store(hash("1"), parse("1")));
+        assertNull(cache.load(hash("1")));
+    }
+}
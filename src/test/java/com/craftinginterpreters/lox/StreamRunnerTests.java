@@ -0,0 +1,219 @@
+package com.craftinginterpreters.lox;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamRunnerTests {
+    private static final String NL = System.lineSeparator();
+
+    private static String run(String input, int expectedStatus, ByteArrayOutputStream errors) throws Exception {
+        StringWriter output = new StringWriter();
+        StreamRunner runner = new StreamRunner(new BufferedReader(new StringReader(input)), output,
+                new PrintStream(errors, true, StandardCharsets.UTF_8));
+        assertEquals(expectedStatus, runner.run());
+        assertEquals(input.isEmpty() ? 0 : input.split("\n", -1).length, runner.lineCount());
+        return output.toString();
+    }
+
+    @Test
+    void writesOneLinePerInputLineInOrder() throws Exception {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        int syntaxErrors = 0;
+        int runtimeErrors = 0;
+        // Enough lines to span many batches on both queues.
+        for (int i = 0; i < 20_000; i++) {
+            if (i > 0) input.append('\n');
+            if (i % 7 == 3) {
+                input.append("(").append(i);
+                expected.append(StreamRunner.ERROR_MARKER).append(NL);
+                syntaxErrors++;
+            } else if (i % 7 == 5) {
+                input.append("\"a\" - ").append(i);
+                expected.append(StreamRunner.ERROR_MARKER).append(NL);
+                runtimeErrors++;
+            } else {
+                input.append("\"line \" + \"").append(i).append('"');
+                expected.append("line ").append(i).append(NL);
+            }
+        }
+
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        assertEquals(expected.toString(), run(input.toString(), 65, errors));
+
+        String messages = errors.toString(StandardCharsets.UTF_8);
+        assertEquals(syntaxErrors, count(messages, "Error at end: Expect ')' after expression."));
+        assertEquals(runtimeErrors, count(messages, "Operands must be numbers."));
+    }
+
+    @Test
+    void exitStatusFollowsRunFile() throws Exception {
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        assertEquals("3" + NL + "true" + NL, run("1 + 2\n!nil", 0, errors));
+        assertEquals("", errors.toString(StandardCharsets.UTF_8));
+
+        assertEquals("3" + NL + StreamRunner.ERROR_MARKER + NL + "nil" + NL,
+                run("1 + 2\n\"x\" * 2\nnil", 70, errors));
+        assertEquals(StreamRunner.ERROR_MARKER + NL + StreamRunner.ERROR_MARKER + NL,
+                run("\"x\" * 2\n)", 65, errors));
+        assertEquals("", run("", 0, errors));
+    }
+
+    @Test
+    void parserCrashFailsOnlyItsLine() throws Exception {
+        // Parses iteratively, then overflows the stack in TypeInference on the parser thread.
+        String deep = "1" + " + 1".repeat(300_000);
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        assertEquals("3" + NL + StreamRunner.ERROR_MARKER + NL + "true" + NL,
+                run("1 + 2\n" + deep + "\n!nil", 70, errors));
+        assertTrue(errors.toString(StandardCharsets.UTF_8).contains("Internal error: java.lang.StackOverflowError"));
+    }
+
+    @Test
+    void evaluatorCrashFailsOnlyItsLine() throws Exception {
+        // Deep enough for the parser thread's stack, but not for an evaluator on a small one.
+        String deep = "1" + " + 1".repeat(2_000);
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            input.append(i).append('\n');
+            expected.append(i).append(NL);
+        }
+        input.append(deep).append("\nnil");
+        expected.append(StreamRunner.ERROR_MARKER).append(NL).append("nil").append(NL);
+
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        String[] output = new String[1];
+        Throwable[] failure = new Throwable[1];
+        Thread evaluator = new Thread(null, () -> {
+            try {
+                output[0] = run(input.toString(), 70, errors);
+            } catch (Throwable error) {
+                failure[0] = error;
+            }
+        }, "small-stack-evaluator", 64 * 1024);
+        evaluator.start();
+        evaluator.join();
+
+        if (failure[0] != null) throw new AssertionError(failure[0]);
+        assertEquals(expected.toString(), output[0]);
+        assertTrue(errors.toString(StandardCharsets.UTF_8).contains("Internal error: java.lang.StackOverflowError"));
+    }
+
+    @Test
+    void slowOutputHoldsBackReading() throws Exception {
+        int lineCount = 300_000;
+        GeneratedLines input = new GeneratedLines("1 + 1", lineCount);
+        BlockingWriter output = new BlockingWriter();
+        StreamRunner runner = new StreamRunner(new BufferedReader(input), output,
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> status = executor.submit(runner::run);
+            assertTrue(output.firstWrite.await(30, TimeUnit.SECONDS), "no output was written");
+
+            // Wait until reading stalls behind the blocked writer.
+            long read = -1;
+            while (read != input.linesRead()) {
+                read = input.linesRead();
+                Thread.sleep(200);
+            }
+            // The 64 KB output buffer, both queues and the batches in hand; far below the input.
+            assertTrue(read < 100_000, () -> "read " + input.linesRead() + " lines ahead of a blocked writer");
+
+            output.release.countDown();
+            assertEquals(0, status.get(60, TimeUnit.SECONDS));
+            assertEquals(lineCount, runner.lineCount());
+            assertEquals(lineCount, output.lines.get());
+        } finally {
+            output.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    // Serves the same line lineCount times and counts how many lines have been handed out.
+    private static class GeneratedLines extends Reader {
+        private final String line;
+        private final long totalChars;
+        private final AtomicLong charsRead = new AtomicLong();
+
+        GeneratedLines(String line, int lineCount) {
+            this.line = line + "\n";
+            this.totalChars = (long) this.line.length() * lineCount;
+        }
+
+        long linesRead() {
+            return charsRead.get() / line.length();
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            long position = charsRead.get();
+            if (position == totalChars) return -1;
+            int count = (int) Math.min(length, totalChars - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = line.charAt((int) ((position + i) % line.length()));
+            }
+            charsRead.addAndGet(count);
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // Blocks the first write until released, then counts the lines written.
+    private static class BlockingWriter extends Writer {
+        final CountDownLatch firstWrite = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicLong lines = new AtomicLong();
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            firstWrite.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') lines.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.StringTable;
+import com.craftinginterpreters.lox.model.Token;
+import com.craftinginterpreters.lox.model.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StringTableTests {
+
+    private static List<Token> strings(String source, StringTable table) {
+        List<Token> strings = new ArrayList<>();
+        for (Token token : new Scanner(source, table).scanTokens()) {
+            if (token.tokenType == TokenType.STRING) strings.add(token);
+        }
+        return strings;
+    }
+
+    @Test
+    void repeatedLiteralsShareTheirStrings() {
+        StringTable table = new StringTable();
+        List<Token> tokens = strings("\"ok\" == \"ok\" + \"no\" + \"ok\"", table);
+
+        assertEquals(2, table.size());
+        assertEquals("ok", tokens.get(0).literal);
+        assertEquals("\"ok\"", tokens.get(0).lexeme);
+        assertSame(tokens.get(0).literal, tokens.get(1).literal);
+        assertSame(tokens.get(0).lexeme, tokens.get(1).lexeme);
+        assertSame(tokens.get(0).literal, tokens.get(3).literal);
+        assertNotSame(tokens.get(0).literal, tokens.get(2).literal);
+    }
+
+    @Test
+    void entriesSurviveResizing() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            source.append("\"literal ").append(i).append("\"\n");
+        }
+        StringTable table = new StringTable();
+        // The table starts with 64 buckets, so this grows it several times.
+        List<Token> first = strings(source.toString(), table);
+        List<Token> second = strings(source.toString(), table);
+
+        assertEquals(5_000, table.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals("literal " + i, first.get(i).literal);
+            assertSame(first.get(i).literal, second.get(i).literal);
+            assertSame(first.get(i).lexeme, second.get(i).lexeme);
+        }
+    }
+
+    @Test
+    void zeroEntriesStoresNothing() {
+        StringTable table = new StringTable(0);
+        List<Token> tokens = strings("\"a\" + \"a\"", table);
+
+        assertEquals(0, table.size());
+        assertEquals(tokens.get(0).literal, tokens.get(1).literal);
+        assertNotSame(tokens.get(0).literal, tokens.get(1).literal);
+    }
+}
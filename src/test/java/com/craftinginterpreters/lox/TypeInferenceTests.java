@@ -0,0 +1,141 @@
+package com.craftinginterpreters.lox;
+
+import com.craftinginterpreters.lox.model.Expr;
+import com.craftinginterpreters.lox.model.LoxType;
+import com.craftinginterpreters.lox.model.Scanner;
+import com.craftinginterpreters.lox.model.Token;
+import com.craftinginterpreters.lox.model.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TypeInferenceTests {
+    private static final String OPERATOR_MIX = "+:4,-:2,*:2,/:1,<:1,<=:1,>:1,>=:1,==:1,!=:1";
+
+    private static Expr parse(String source) {
+        return new Parser(new Scanner(source).scanTokens()).parse();
+    }
+
+    private static LoxType typeOf(String source) {
+        Expr expression = parse(source);
+        TypeInference.annotate(expression);
+        return expression.type;
+    }
+
+    private static Interpreter interpreter() {
+        return new Interpreter(EvaluationLimits.UNLIMITED, new StringWriter());
+    }
+
+    // The value, or the RuntimeError message and line.
+    private static String outcome(Expr expression) {
+        Interpreter interpreter = interpreter();
+        try {
+            return "value " + interpreter.stringify(interpreter.execute(expression));
+        } catch (RuntimeError error) {
+            return "error " + error.getMessage() + " [line " + error.token.lineNumber + "]";
+        }
+    }
+
+    @Test
+    void literalsHaveTheirOwnType() {
+        assertEquals(LoxType.NUMBER, typeOf("12"));
+        assertEquals(LoxType.NUMBER, typeOf("1.5"));
+        assertEquals(LoxType.STRING, typeOf("\"a\""));
+        assertEquals(LoxType.BOOLEAN, typeOf("true"));
+        assertEquals(LoxType.BOOLEAN, typeOf("false"));
+        assertEquals(LoxType.NIL, typeOf("nil"));
+    }
+
+    @Test
+    void operatorsThatCompleteOnlyOnNumbersAreNumber() {
+        // Whatever the operands, these either give a number or fail.
+        for (String operator : new String[] {"-", "*", "/"}) {
+            assertEquals(LoxType.NUMBER, typeOf("1 " + operator + " 2"), operator);
+            assertEquals(LoxType.NUMBER, typeOf("\"a\" " + operator + " nil"), operator);
+        }
+        assertEquals(LoxType.NUMBER, typeOf("-1"));
+        assertEquals(LoxType.NUMBER, typeOf("-\"a\""));
+    }
+
+    @Test
+    void comparisonsAndNotAreBoolean() {
+        for (String operator : new String[] {"<", "<=", ">", ">=", "==", "!="}) {
+            assertEquals(LoxType.BOOLEAN, typeOf("1 " + operator + " \"a\""), operator);
+        }
+        assertEquals(LoxType.BOOLEAN, typeOf("!nil"));
+        assertEquals(LoxType.BOOLEAN, typeOf("!1"));
+    }
+
+    @Test
+    void plusIsProvenOnlyForMatchingOperands() {
+        assertEquals(LoxType.NUMBER, typeOf("1 + 2"));
+        assertEquals(LoxType.STRING, typeOf("\"a\" + \"b\""));
+        assertEquals(LoxType.UNKNOWN, typeOf("1 + \"b\""));
+        assertEquals(LoxType.UNKNOWN, typeOf("\"a\" + 1"));
+        assertEquals(LoxType.UNKNOWN, typeOf("nil + nil"));
+        assertEquals(LoxType.UNKNOWN, typeOf("true + true"));
+        // An unknown operand keeps the whole chain unknown.
+        assertEquals(LoxType.UNKNOWN, typeOf("(1 + \"b\") + 2"));
+        assertEquals(LoxType.UNKNOWN, typeOf("(1 + \"b\") + (1 + \"b\")"));
+    }
+
+    @Test
+    void groupingPropagatesItsType() {
+        Expr expression = parse("(\"a\") + ((\"b\"))");
+        TypeInference.annotate(expression);
+        Expr.Binary binary = assertInstanceOf(Expr.Binary.class, expression);
+        assertEquals(LoxType.STRING, binary.left.type);
+        assertEquals(LoxType.STRING, binary.right.type);
+        assertEquals(LoxType.STRING, ((Expr.Grouping) binary.right).expression.type);
+        assertEquals(LoxType.STRING, binary.type);
+        assertEquals(LoxType.UNKNOWN, typeOf("(1 + nil)"));
+    }
+
+    @Test
+    void provenOperandsSkipTheRuntimeCheck() {
+        Token minus = new Token(TokenType.MINUS, "-", null, 1);
+        Token plus = new Token(TokenType.PLUS, "+", null, 1);
+
+        // Unannotated, a wrongly typed operand is caught by the checked path.
+        Expr.Literal string = new Expr.Literal("a");
+        assertThrows(RuntimeError.class, () -> interpreter().execute(new Expr.Unary(minus, string)));
+        assertThrows(RuntimeError.class, () -> interpreter().execute(
+                new Expr.Binary(new Expr.Literal(1.5), minus, new Expr.Literal("a"))));
+
+        // Falsely proven NUMBER, the same operand goes straight to the unchecked double path.
+        Expr.Literal lie = new Expr.Literal("a");
+        lie.type = LoxType.NUMBER;
+        assertThrows(ClassCastException.class, () -> interpreter().execute(new Expr.Unary(minus, lie)));
+        Expr.Literal number = new Expr.Literal(1.5);
+        number.type = LoxType.NUMBER;
+        assertThrows(ClassCastException.class, () -> interpreter().execute(new Expr.Binary(number, minus, lie)));
+
+        // Falsely proven STRING operands are concatenated without checking either.
+        Expr.Literal left = new Expr.Literal("a");
+        left.type = LoxType.STRING;
+        Expr.Literal notString = new Expr.Literal(true);
+        notString.type = LoxType.STRING;
+        assertThrows(ClassCastException.class, () -> interpreter().execute(new Expr.Binary(left, plus, notString)));
+    }
+
+    @Test
+    void annotatedTreesEvaluateLikeUnannotatedOnes() {
+        List<String> sources = new ArrayList<>(List.of(
+                "-\"x\"", "-nil", "-(1 + 2)", "-true", "1 +\n\"a\"", "\"a\" *\n2", "(\"a\" + \"b\") - 1",
+                "!(1 < 2) == false", "\"a\" + \"b\" + \"c\"", "1 / 0", "(1 + 2) * 3 - 4 / 8"));
+        sources.addAll(new ExpressionGenerator(3, 4, 4, OPERATOR_MIX, 0.05).next(5_000));
+
+        for (String source : sources) {
+            String unannotated = outcome(parse(source));
+            Expr expression = parse(source);
+            TypeInference.annotate(expression);
+            assertEquals(unannotated, outcome(expression), () -> "evaluating: " + source);
+        }
+    }
+}
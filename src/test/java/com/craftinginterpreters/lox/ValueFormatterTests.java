@@ -0,0 +1,59 @@
+package com.craftinginterpreters.lox;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** ValueFormatter must print exactly what the old toString-and-trim stringify printed. */
+class ValueFormatterTests {
+
+    // The stringify this formatter replaced.
+    private static String legacy(Object value) {
+        if (value == null) return "nil";
+        if (value instanceof Long) value = (double) (long) value;
+        if (value instanceof Double) {
+            String text = value.toString();
+            if (text.endsWith(".0")) {
+                text = text.substring(0, text.length() - 2);
+            }
+            return text;
+        }
+        return value.toString();
+    }
+
+    private static void assertFormatsLikeLegacy(Object value) {
+        StringBuilder out = new StringBuilder("prefix ");
+        ValueFormatter.append(out, value);
+        assertEquals("prefix " + legacy(value), out.toString(), () -> "formatting " + value);
+    }
+
+    @Test
+    void edgeCases() {
+        double twoTo53 = 9007199254740992.0;
+        Object[] values = {
+                0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                9999999.0, -9999999.0, 10000000.0, -10000000.0,
+                9999999L, -9999999L, 10000000L, -10000000L, 0L,
+                twoTo53, -twoTo53, (long) twoTo53, -(long) twoTo53,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, Math.nextDown(Double.MIN_NORMAL),
+                Double.MAX_VALUE, 0.1, 0.001, 1.0E-4, 123.0, 123.5, 1e21, 1e-7,
+                null, true, false, "", "text", "with .0"
+        };
+        for (Object value : values) {
+            assertFormatsLikeLegacy(value);
+        }
+    }
+
+    @Test
+    void randomDoubles() {
+        Random random = new Random(29);
+        for (int i = 0; i < 200_000; i++) {
+            assertFormatsLikeLegacy(Double.longBitsToDouble(random.nextLong()));
+            assertFormatsLikeLegacy((double) (random.nextInt(40_000_000) - 20_000_000));
+            assertFormatsLikeLegacy(random.nextInt(1_000_000) / 64.0);
+            assertFormatsLikeLegacy((long) (random.nextInt(40_000_000) - 20_000_000));
+        }
+    }
+}